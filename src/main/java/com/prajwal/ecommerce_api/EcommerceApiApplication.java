@@ -2,8 +2,10 @@ package com.prajwal.ecommerce_api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// The R2DBC pool is set up by ReactiveDataSourceConfig, see there
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class EcommerceApiApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,15 @@
+package com.prajwal.ecommerce_api.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response depends only on the request and the catalog contents, so it can be
+ * validated with the {@link CatalogVersion} ETag and answered with 304 before the handler runs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CatalogETag {
+}
@@ -0,0 +1,35 @@
+package com.prajwal.ecommerce_api.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers If-None-Match for {@link CatalogETag} handlers from the catalog version alone,
+ * so an unchanged list costs no query, mapping or serialization.
+ */
+@Component
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    private final CatalogVersion catalogVersion;
+
+    public CatalogETagInterceptor(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !method.hasMethodAnnotation(CatalogETag.class)) {
+            return true;
+        }
+        // Read the version before the handler queries anything: a concurrent write can only make the ETag older
+        // than the body, which costs one extra full response rather than serving stale data
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return !new ServletWebRequest(request, response).checkNotModified(catalogVersion.etag());
+    }
+}
@@ -0,0 +1,43 @@
+package com.prajwal.ecommerce_api.cache;
+
+import com.prajwal.ecommerce_api.event.ProductChangedEvent;
+import com.prajwal.ecommerce_api.event.ProductsImportedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide version that changes after every committed product write; used as the ETag of list responses.
+ * Seeded from the startup time so a restarted instance never hands out an ETag from its previous run.
+ * <p>
+ * The listeners run last so the product cache and search index already reflect a write when its version
+ * becomes visible; otherwise a reader could pair the new ETag with stale in-memory data.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    public String etag() {
+        return "\"c" + Long.toHexString(version.get()) + "\"";
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        version.incrementAndGet();
+    }
+}
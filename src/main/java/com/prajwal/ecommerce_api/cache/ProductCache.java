@@ -0,0 +1,159 @@
+package com.prajwal.ecommerce_api.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.event.ProductChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicting cache of active products keyed by id.
+ * Entries are refreshed or dropped only after the writing transaction commits, so readers never see
+ * a product that was rolled back or deactivated. Hit/miss/eviction counters are published as {@code cache.*} metrics.
+ * <p>
+ * Loaders run on the calling thread outside any map lock (only a placeholder future is inserted under it), so a
+ * virtual thread blocked on JDBC inside a loader doesn't pin its carrier. Concurrent callers for the same id wait
+ * on the placeholder; an eviction while a load is in flight drops the placeholder, so the loaded value isn't kept.
+ * The {@code Async} variants take loaders that return futures and never block; they share the same entries.
+ */
+@Component
+public class ProductCache {
+
+    private final AsyncCache<Long, ProductDTO> cache;
+
+    public ProductCache(@Value("${app.cache.products.max-size:10000}") long maxSize,
+                        @Value("${app.cache.products.ttl-seconds:300}") long ttlSeconds,
+                        MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public ProductDTO get(Long id, Function<Long, ProductDTO> loader) {
+        CompletableFuture<ProductDTO> loading = new CompletableFuture<>();
+        CompletableFuture<ProductDTO> future = cache.get(id, (key, executor) -> loading);
+        if (future == loading) {
+            load(loading, () -> loader.apply(id));
+        }
+        return await(future);
+    }
+
+    /** Bulk lookup; the loader is called once with all missing ids, and ids it doesn't return are left out. */
+    public Map<Long, ProductDTO> getAll(Collection<Long> ids, Function<Set<Long>, Map<Long, ProductDTO>> loader) {
+        CompletableFuture<Map<Long, ProductDTO>> loading = new CompletableFuture<>();
+        AtomicReference<Set<Long>> missingIds = new AtomicReference<>();
+        CompletableFuture<Map<Long, ProductDTO>> future = cache.getAll(ids, (missing, executor) -> {
+            missingIds.set(Collections.unmodifiableSet(missing));
+            return loading;
+        });
+        if (missingIds.get() != null) {
+            load(loading, () -> loader.apply(missingIds.get()));
+        }
+        return await(future);
+    }
+
+    /** Non-blocking {@link #get}; a loader result of null (no such product) completes with null and isn't kept. */
+    public CompletableFuture<ProductDTO> getAsync(Long id, Function<Long, CompletableFuture<ProductDTO>> loader) {
+        CompletableFuture<ProductDTO> loading = new CompletableFuture<>();
+        CompletableFuture<ProductDTO> future = cache.get(id, (key, executor) -> loading);
+        if (future == loading) {
+            loadAsync(loading, () -> loader.apply(id));
+        }
+        return future;
+    }
+
+    /** Non-blocking {@link #getAll}. */
+    public CompletableFuture<Map<Long, ProductDTO>> getAllAsync(
+            Collection<Long> ids, Function<Set<Long>, CompletableFuture<Map<Long, ProductDTO>>> loader) {
+        CompletableFuture<Map<Long, ProductDTO>> loading = new CompletableFuture<>();
+        AtomicReference<Set<Long>> missingIds = new AtomicReference<>();
+        CompletableFuture<Map<Long, ProductDTO>> future = cache.getAll(ids, (missing, executor) -> {
+            missingIds.set(Collections.unmodifiableSet(missing));
+            return loading;
+        });
+        if (missingIds.get() != null) {
+            loadAsync(loading, () -> loader.apply(missingIds.get()));
+        }
+        return future;
+    }
+
+    public ProductDTO getIfPresent(Long id) {
+        return cache.synchronous().getIfPresent(id);
+    }
+
+    public void put(ProductDTO product) {
+        cache.synchronous().put(product.getId(), product);
+    }
+
+    public void evict(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    // Before CatalogVersion bumps, see there
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isRemoved()) {
+            evict(event.getProductId());
+        } else {
+            put(event.getProduct());
+        }
+    }
+
+    private static <T> void load(CompletableFuture<T> loading, Supplier<T> loader) {
+        try {
+            loading.complete(loader.get());
+        } catch (RuntimeException | Error ex) {
+            loading.completeExceptionally(ex);
+        }
+    }
+
+    private static <T> void loadAsync(CompletableFuture<T> loading, Supplier<CompletableFuture<T>> loader) {
+        try {
+            loader.get().whenComplete((value, ex) -> {
+                if (ex != null) {
+                    loading.completeExceptionally(ex);
+                } else {
+                    loading.complete(value);
+                }
+            });
+        } catch (RuntimeException | Error ex) {
+            loading.completeExceptionally(ex);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            // Surface the loader's own exception, e.g. ProductNotFoundException for the controller advice
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
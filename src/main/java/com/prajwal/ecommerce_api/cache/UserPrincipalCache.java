@@ -0,0 +1,109 @@
+package com.prajwal.ecommerce_api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.prajwal.ecommerce_api.event.UserProfileChangedEvent;
+import com.prajwal.ecommerce_api.event.UserRegisteredEvent;
+import com.prajwal.ecommerce_api.event.UserSecurityChangedEvent;
+import com.prajwal.ecommerce_api.model.User;
+import com.prajwal.ecommerce_api.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of user principals for login and the JWT filter. Identifiers are matched ignoring
+ * case, as the database does. Hit/miss/eviction counters are published as {@code cache.*} metrics under
+ * "user-principals".
+ * <p>
+ * Usernames and emails are separate key spaces. The database resolves a username match ahead of an email match,
+ * and a new user may register a username equal to someone else's email, so an entry is cached under the user's
+ * username, and under their email only when the email is what resolved it. A username key is checked first; an
+ * email key for a string that has since become a username is dropped when that registration commits.
+ * <p>
+ * A user's entries are dropped after any role, enabled, profile or delete change commits. A load that overlaps an
+ * invalidation isn't cached, so a row read before the change committed can't be put back afterwards.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final Cache<Key, UserPrincipal> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserPrincipalCache(@Value("${app.cache.users.max-size:10000}") long maxSize,
+                              @Value("${app.cache.users.ttl-seconds:300}") long ttlSeconds,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user-principals");
+    }
+
+    /** The principal for a username or email; the loader returns null for an unknown identifier, which isn't cached. */
+    public UserPrincipal get(String identifier, Function<String, User> loader) {
+        UserPrincipal cached = cache.getIfPresent(Key.username(identifier));
+        if (cached == null) {
+            cached = cache.getIfPresent(Key.email(identifier));
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        User user = loader.apply(identifier);
+        if (user == null) {
+            return null;
+        }
+        UserPrincipal principal = new UserPrincipal(user);
+        cache.put(Key.username(user.getUsername()), principal);
+        // Only the loader knows no username matched, so only then is the email key safe
+        if (!user.getUsername().equalsIgnoreCase(identifier)) {
+            cache.put(Key.email(identifier), principal);
+        }
+        if (invalidations.get() != invalidationsBefore) {
+            evict(principal.getId());
+        }
+        return principal;
+    }
+
+    public void evict(Long userId) {
+        invalidations.incrementAndGet();
+        cache.asMap().values().removeIf(principal -> Objects.equals(principal.getId(), userId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        invalidations.incrementAndGet();
+        cache.invalidate(Key.email(event.getUsername()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        evict(event.getUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        evict(event.getUserId());
+    }
+
+    private record Key(boolean email, String identifier) {
+        static Key username(String username) {
+            return new Key(false, username.toLowerCase(Locale.ROOT));
+        }
+
+        static Key email(String email) {
+            return new Key(true, email.toLowerCase(Locale.ROOT));
+        }
+    }
+}
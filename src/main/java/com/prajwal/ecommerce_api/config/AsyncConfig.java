@@ -0,0 +1,10 @@
+package com.prajwal.ecommerce_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// @Async methods run on Boot's applicationTaskExecutor, which uses virtual threads when spring.threads.virtual.enabled
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
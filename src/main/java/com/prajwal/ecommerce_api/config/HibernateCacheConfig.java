@@ -0,0 +1,73 @@
+package com.prajwal.ecommerce_api.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache (Product and User by id) and query cache on Caffeine through JCache.
+ * <p>
+ * Every region is created here with its own bound and TTL, and Hibernate fails to start on a region that isn't, so
+ * nothing grows unbounded by accident. Entity regions are READ_WRITE: updates through Hibernate refresh them on
+ * commit, while a bulk JPQL update would evict the whole region, so stock and other writes go through the entity.
+ * Full-catalog scans (index builds, export) bypass the cache so they don't flush out the working set. Cached query
+ * results are invalidated through the update-timestamps region whenever their tables are written, which is why that
+ * region is never evicted.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.cache.hibernate.products.max-size:10000}") long productsMaxSize,
+            @Value("${app.cache.hibernate.products.ttl-seconds:600}") long productsTtlSeconds,
+            @Value("${app.cache.hibernate.users.max-size:10000}") long usersMaxSize,
+            @Value("${app.cache.hibernate.users.ttl-seconds:600}") long usersTtlSeconds,
+            @Value("${app.cache.hibernate.queries.max-size:10000}") long queriesMaxSize,
+            @Value("${app.cache.hibernate.queries.ttl-seconds:300}") long queriesTtlSeconds) {
+        // A URI of its own, so two application contexts in one JVM (tests, benchmarks) never share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache("products", region(productsMaxSize, productsTtlSeconds));
+        cacheManager.createCache("users", region(usersMaxSize, usersTtlSeconds));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queriesMaxSize, queriesTtlSeconds));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStoreByValue(false));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()));
+        // Hibernate already stores disassembled state, no need for JCache to copy it again
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
@@ -0,0 +1,34 @@
+package com.prajwal.ecommerce_api.config;
+
+import com.prajwal.ecommerce_api.metrics.SqlStatementListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes the application DataSource through datasource-proxy so each request's statements are counted
+ * (see {@link com.prajwal.ecommerce_api.metrics.RequestMetricsFilter}). With replicas enabled the routing
+ * DataSource is the one wrapped, so statements are counted once whichever pool serves them.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new SqlStatementListener())
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.prajwal.ecommerce_api.config;
+
+import com.prajwal.ecommerce_api.ratelimit.RateLimitFilter;
+import com.prajwal.ecommerce_api.ratelimit.RateLimitPolicy;
+import com.prajwal.ecommerce_api.ratelimit.RateLimiter;
+import com.prajwal.ecommerce_api.security.JwtTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.stream.LongStream;
+
+/**
+ * Per-client token-bucket rate limits, applied in the security filter chain ahead of the JWT filter
+ * (see {@link SecurityConfig}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+            JwtTokenProvider jwtTokenProvider, MeterRegistry meterRegistry,
+            @Value("${app.rate-limit.max-clients:100000}") long maxClients,
+            @Value("${app.rate-limit.auth.capacity:10}") int authCapacity,
+            @Value("${app.rate-limit.auth.refill-per-second:0.2}") double authRefill,
+            @Value("${app.rate-limit.admin-write.capacity:20}") int adminWriteCapacity,
+            @Value("${app.rate-limit.admin-write.refill-per-second:2}") double adminWriteRefill,
+            @Value("${app.rate-limit.product-read.capacity:200}") int productReadCapacity,
+            @Value("${app.rate-limit.product-read.refill-per-second:100}") double productReadRefill,
+            @Value("${app.rate-limit.default.capacity:100}") int defaultCapacity,
+            @Value("${app.rate-limit.default.refill-per-second:50}") double defaultRefill) {
+        RateLimitPolicy auth = new RateLimitPolicy("auth", authCapacity, authRefill);
+        RateLimitPolicy adminWrite = new RateLimitPolicy("admin-write", adminWriteCapacity, adminWriteRefill);
+        RateLimitPolicy productRead = new RateLimitPolicy("product-read", productReadCapacity, productReadRefill);
+        RateLimitPolicy standard = new RateLimitPolicy("default", defaultCapacity, defaultRefill);
+        long idleNanos = LongStream.of(auth.fillNanos(), adminWrite.fillNanos(), productRead.fillNanos(),
+                standard.fillNanos()).max().getAsLong();
+        return new RateLimitFilter(new RateLimiter(maxClients, Duration.ofNanos(idleNanos)), jwtTokenProvider,
+                auth, adminWrite, productRead, standard, meterRegistry);
+    }
+
+    // Only in the security chain; left to Boot it would also run as a servlet filter, ahead of the chain
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
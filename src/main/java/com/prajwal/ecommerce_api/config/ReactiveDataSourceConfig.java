@@ -0,0 +1,53 @@
+package com.prajwal.ecommerce_api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * R2DBC connection pool for the non-blocking reads behind /api/reactive. Built here instead of by Boot's R2DBC
+ * auto-configuration, because the JDBC DataSource (and with it JPA) backs off once an R2DBC ConnectionFactory bean
+ * exists; only the {@link DatabaseClient} is exposed. Pool metrics are published as {@code r2dbc.pool.*} with
+ * {@code name=reactive}.
+ */
+@Configuration
+public class ReactiveDataSourceConfig implements DisposableBean {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(
+            @Value("${app.datasource.reactive.url}") String url,
+            @Value("${app.datasource.reactive.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.reactive.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.reactive.max-pool-size:20}") int maxPoolSize,
+            MeterRegistry meterRegistry) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive")
+                .initialSize(Math.min(10, maxPoolSize))
+                .maxSize(maxPoolSize)
+                .build());
+        new ConnectionPoolMetrics(connectionPool, "reactive", Tags.empty()).bindTo(meterRegistry);
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
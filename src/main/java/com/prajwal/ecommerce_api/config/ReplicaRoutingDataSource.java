@@ -0,0 +1,173 @@
+package com.prajwal.ecommerce_api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica (round robin) and everything else to the primary.
+ * <p>
+ * Must sit behind a {@link LazyConnectionDataSourceProxy}: the transaction manager opens its connection before the
+ * read-only flag is bound, the proxy defers that until the first statement. Replicas are probed in the background
+ * and skipped while down, falling back to the primary when none is left. A user whose write committed within the
+ * read-your-writes window reads from the primary, so they don't see the replica lagging behind their own change.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final Duration healthCheckInterval;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    // Indexes into replicas; replaced wholesale by the health check
+    private volatile List<Integer> healthyReplicas;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    Duration healthCheckInterval, Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.healthCheckInterval = healthCheckInterval;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+            all.add(i);
+        }
+        this.healthyReplicas = List.copyOf(all);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        long interval = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return PRIMARY;
+        }
+        List<Integer> candidates = healthyReplicas;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        String username = currentUsername();
+        if (username != null && recentWriters.getIfPresent(username) != null) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+    }
+
+    public int getHealthyReplicaCount() {
+        return healthyReplicas.size();
+    }
+
+    void checkReplicas() {
+        List<Integer> healthy = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariDataSource replica = replicas.get(i);
+            boolean up = isValid(replica);
+            boolean wasUp = healthyReplicas.contains(i);
+            if (up) {
+                healthy.add(i);
+                if (!wasUp) {
+                    log.info("Replica {} is back, routing reads to it again", replica.getPoolName());
+                }
+            } else if (wasUp) {
+                log.warn("Replica {} failed its health check, routing its reads elsewhere", replica.getPoolName());
+            }
+        }
+        if (healthy.isEmpty() && !replicas.isEmpty() && !healthyReplicas.isEmpty()) {
+            log.warn("No healthy replica left, routing all reads to the primary");
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    // Only committed writes open the window; a rolled back transaction left nothing to read back
+    private void trackWrite() {
+        String username = currentUsername();
+        if (username == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(username, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static boolean isValid(HikariDataSource dataSource) {
+        boolean valid;
+        try (Connection connection = dataSource.getConnection()) {
+            valid = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException ex) {
+            valid = false;
+        }
+        if (!valid && dataSource.getHikariPoolMXBean() != null) {
+            // The other pooled connections are as dead as this one; start over once the replica is back
+            dataSource.getHikariPoolMXBean().softEvictConnections();
+        }
+        return valid;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    @Override
+    public void destroy() {
+        healthChecker.shutdownNow();
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
@@ -1,7 +1,13 @@
 package com.prajwal.ecommerce_api.config;
 
+import com.prajwal.ecommerce_api.ratelimit.RateLimitFilter;
+import com.prajwal.ecommerce_api.security.BoundedPasswordEncoder;
 import com.prajwal.ecommerce_api.security.CustomUserDetailsService;
 import com.prajwal.ecommerce_api.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,18 +16,26 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
+    // BCrypt off the request threads, on a pool sized to the cores unless configured; see BoundedPasswordEncoder
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength,
+                                           @Value("${app.security.password-hashing.threads:0}") int threads,
+                                           @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${app.security.password-hashing.timeout-millis:2000}") long timeoutMillis,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(strength,
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity, Duration.ofMillis(timeoutMillis), meterRegistry);
     }
 
     @Bean
@@ -30,18 +44,24 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder);
+        // Rehashes a password on login once its hash's cost differs from app.security.bcrypt.strength
+        provider.setUserDetailsPasswordService(userDetailsService);
         return provider;
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http,
                                                    DaoAuthenticationProvider daoAuthProvider,
-                                                   JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+                                                   JwtAuthenticationFilter jwtAuthenticationFilter,
+                                                   ObjectProvider<RateLimitFilter> rateLimitFilter) throws Exception {
 
         http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches only write the result of a request that was already authorized, and the
+                        // JWT filter doesn't run on them (see ReactiveProductController)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Allow Swagger and login endpoints
                         .requestMatchers(
                                 "/api/auth/login",
@@ -54,6 +74,8 @@ public class SecurityConfig {
                 )
                 .authenticationProvider(daoAuthProvider)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // Unless app.rate-limit.enabled=false; ahead of the JWT filter so rejected requests cost no user lookup
+        rateLimitFilter.ifAvailable(filter -> http.addFilterBefore(filter, JwtAuthenticationFilter.class));
 
         return http.build();
     }
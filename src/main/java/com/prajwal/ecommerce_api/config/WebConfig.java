@@ -0,0 +1,21 @@
+package com.prajwal.ecommerce_api.config;
+
+import com.prajwal.ecommerce_api.cache.CatalogETagInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CatalogETagInterceptor catalogETagInterceptor;
+
+    public WebConfig(CatalogETagInterceptor catalogETagInterceptor) {
+        this.catalogETagInterceptor = catalogETagInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogETagInterceptor);
+    }
+}
@@ -31,7 +31,8 @@ public class AuthController {
             responses = {
                     @ApiResponse(responseCode = "201", description = "User registered successfully",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDTO.class))),
-                    @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content)
+                    @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content),
+                    @ApiResponse(responseCode = "503", description = "Password hashing saturated, retry later", content = @Content)
             })
     @PostMapping("/register")
     public ResponseEntity<UserDTO> register(@Valid @RequestBody RegisterRequestDTO registerRequest) {
@@ -44,7 +45,8 @@ public class AuthController {
             responses = {
                     @ApiResponse(responseCode = "200", description = "User logged in successfully",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoginResponseDTO.class))),
-                    @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content)
+                    @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content),
+                    @ApiResponse(responseCode = "503", description = "Password hashing saturated, retry later", content = @Content)
             })
     @PostMapping("/login")
     public ResponseEntity<LoginResponseDTO> login(@Valid @RequestBody LoginRequestDTO loginRequest) {
@@ -1,21 +1,39 @@
 package com.prajwal.ecommerce_api.controller;
 
+import com.prajwal.ecommerce_api.cache.CatalogETag;
+import com.prajwal.ecommerce_api.dto.CursorPageDTO;
+import com.prajwal.ecommerce_api.dto.ImportReportDTO;
+import com.prajwal.ecommerce_api.dto.ProductBatchDTO;
 import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.dto.ProductFacetsDTO;
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import com.prajwal.ecommerce_api.service.ProductImportService;
 import com.prajwal.ecommerce_api.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @RestController
@@ -23,16 +41,46 @@ import java.util.List;
 @Tag(name = "Products", description = "Operations related to product management")
 public class ProductController {
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService) {
         this.productService = productService;
+        this.productImportService = productImportService;
     }
 
     @Operation(summary = "Get paginated list of all products")
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> getAllProducts(
+    @CatalogETag
+    public ResponseEntity<Page<ProductSummaryDTO>> getAllProducts(
             @PageableDefault(page = 0, size = 10) Pageable pageable) {
-        Page<ProductDTO> products = productService.getAllProducts(pageable);
+        Page<ProductSummaryDTO> products = productService.getAllProducts(pageable);
+        return ResponseEntity.ok(products);
+    }
+
+    @Operation(summary = "Scroll through all products with an opaque cursor (no total count)")
+    @GetMapping("/scroll")
+    @CatalogETag
+    public ResponseEntity<CursorPageDTO<ProductDTO>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String sort) {
+        CursorPageDTO<ProductDTO> products = productService.scrollProducts(cursor, size, sort);
+        return ResponseEntity.ok(products);
+    }
+
+    @Operation(summary = "Stream the whole active catalog as newline-delimited JSON")
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void exportCatalog(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        productService.exportActiveCatalog(response.getOutputStream());
+    }
+
+    @Operation(summary = "Get several products by id in one request; unknown or inactive ids are reported, not fatal")
+    @GetMapping("/batch")
+    @CatalogETag
+    public ResponseEntity<ProductBatchDTO> getProductsByIds(@RequestParam List<Long> ids) {
+        ProductBatchDTO products = productService.getProductsByIds(ids);
         return ResponseEntity.ok(products);
     }
 
@@ -43,9 +91,16 @@ public class ProductController {
                     @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
             })
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        // Validators come from the (usually cached) product itself, so a conditional GET costs no query
         ProductDTO product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        LocalDateTime updatedAt = product.getUpdatedAt();
+        if (updatedAt != null && webRequest.checkNotModified(productETag(id, updatedAt),
+                updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())) {
+            // 304 with validators has already been written
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(product);
     }
 
     @Operation(summary = "Create a new product (Admin only)")
@@ -58,6 +113,25 @@ public class ProductController {
         return  ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
     }
 
+    @Operation(summary = "Bulk import products from a JSON array (Admin only)")
+    @ApiResponse(responseCode = "200", description = "Import finished; see the per-row error report",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ImportReportDTO.class)))
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportReportDTO> importProductsJson(HttpServletRequest request) throws IOException {
+        ImportReportDTO report = productImportService.importJson(request.getInputStream());
+        return ResponseEntity.ok(report);
+    }
+
+    @Operation(summary = "Bulk import products from CSV with a name,description,price,stock,category header (Admin only)")
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportReportDTO> importProductsCsv(HttpServletRequest request) throws IOException {
+        ImportReportDTO report = productImportService.importCsv(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        return ResponseEntity.ok(report);
+    }
+
     @Operation(summary = "Update existing product by ID (Admin only)")
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -75,38 +149,77 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Search products by name")
+    @Operation(summary = "Search products by name and description, ranked by relevance")
     @GetMapping("/search")
-    public ResponseEntity<List<ProductDTO>> searchByName(@RequestParam String name) {
-        List<ProductDTO> products = productService.searchByName(name);
+    @CatalogETag
+    public ResponseEntity<Page<ProductSummaryDTO>> searchByName(
+            @PageableDefault(page = 0, size = 10) Pageable pageable,
+            @RequestParam String name) {
+        Page<ProductSummaryDTO> products = productService.searchByName(name, pageable);
         return ResponseEntity.ok(products);
     }
 
+    @Operation(summary = "Filtered page of products with per-category counts and a price histogram")
+    @GetMapping("/facets")
+    @CatalogETag
+    public ResponseEntity<ProductFacetsDTO> getFacets(
+            @PageableDefault(page = 0, size = 10) Pageable pageable,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "50") Double bucketSize) {
+        ProductFacetsDTO facets = productService.getFacets(pageable, category, minPrice, maxPrice, bucketSize);
+        return ResponseEntity.ok(facets);
+    }
+
     @Operation(summary = "Filter products by category")
     @GetMapping("/filter/category")
-    public ResponseEntity<List<ProductDTO>> filterByCategory(@RequestParam String category) {
-        List<ProductDTO> products = productService.filterByCategory(category);
+    @CatalogETag
+    public ResponseEntity<List<ProductSummaryDTO>> filterByCategory(@RequestParam String category) {
+        List<ProductSummaryDTO> products = productService.filterByCategory(category);
         return ResponseEntity.ok(products);
     }
 
     @Operation(summary = "Filter products by price range")
     @GetMapping("/filter/price")
-    public ResponseEntity<Page<ProductDTO>> filterByPriceRange(
+    @CatalogETag
+    public ResponseEntity<Page<ProductSummaryDTO>> filterByPriceRange(
             @PageableDefault(page = 0, size = 10) Pageable pageable,
             @RequestParam Double minPrice,
             @RequestParam Double maxPrice) {
-        Page<ProductDTO> products = productService.filterByPriceRange(pageable, minPrice, maxPrice);
+        Page<ProductSummaryDTO> products = productService.filterByPriceRange(pageable, minPrice, maxPrice);
+        return ResponseEntity.ok(products);
+    }
+
+    @Operation(summary = "Scroll through products in a price range with an opaque cursor (no total count)")
+    @GetMapping("/filter/price/scroll")
+    @CatalogETag
+    public ResponseEntity<CursorPageDTO<ProductDTO>> scrollByPriceRange(
+            @RequestParam Double minPrice,
+            @RequestParam Double maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String sort) {
+        CursorPageDTO<ProductDTO> products = productService.scrollByPriceRange(cursor, size, minPrice, maxPrice, sort);
         return ResponseEntity.ok(products);
     }
 
     @Operation(summary = "Filter products by price range and category")
     @GetMapping("/filter/price-and-category")
-    public ResponseEntity<Page<ProductDTO>> filterByPriceAndCategory(
+    @CatalogETag
+    public ResponseEntity<Page<ProductSummaryDTO>> filterByPriceAndCategory(
             @PageableDefault(page = 0, size = 10) Pageable pageable,
             @RequestParam Double minPrice,
             @RequestParam Double maxPrice,
             @RequestParam String category) {
-        Page<ProductDTO> products = productService.filterByPriceAndCategory(pageable, minPrice, maxPrice, category);
+        Page<ProductSummaryDTO> products = productService.filterByPriceAndCategory(pageable, minPrice, maxPrice, category);
         return ResponseEntity.ok(products);
     }
+
+    // Strong validator: updatedAt changes on every write to the row
+    private static String productETag(Long id, LocalDateTime updatedAt) {
+        Instant instant = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+        long micros = instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+        return "\"p" + id + "-" + Long.toHexString(micros) + "\"";
+    }
 }
@@ -0,0 +1,92 @@
+package com.prajwal.ecommerce_api.controller;
+
+import com.prajwal.ecommerce_api.cache.CatalogETag;
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import com.prajwal.ecommerce_api.service.ReactiveProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Read endpoints of {@link ProductController} over non-blocking database access. Spring MVC completes the Mono/Flux
+ * asynchronously, so no container thread is held while a query is out; the same cache, search index and DTOs are
+ * used, with reads going through R2DBC instead of JPA.
+ */
+@RestController
+@RequestMapping("/api/reactive/products")
+@Tag(name = "Products (reactive)", description = "Non-blocking read-only product endpoints")
+public class ReactiveProductController {
+
+    private static final int STREAM_PREFETCH = 64;
+
+    private final ReactiveProductService reactiveProductService;
+
+    public ReactiveProductController(ReactiveProductService reactiveProductService) {
+        this.reactiveProductService = reactiveProductService;
+    }
+
+    @Operation(summary = "Get paginated list of all products")
+    @GetMapping
+    @CatalogETag
+    public Mono<Page<ProductSummaryDTO>> getAllProducts(@PageableDefault(page = 0, size = 10) Pageable pageable) {
+        return reactiveProductService.getAllProducts(pageable);
+    }
+
+    @Operation(summary = "Stream the whole active catalog as newline-delimited JSON, read as fast as it is written")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductDTO> streamProducts() {
+        // Each product is written to the servlet response as it's emitted, and those writes block, so they're moved
+        // off the driver's event loop. The bounded prefetch is what holds back the rows for a slow reader
+        return reactiveProductService.streamActiveCatalog()
+                .publishOn(Schedulers.boundedElastic(), STREAM_PREFETCH);
+    }
+
+    @Operation(summary = "Get product by ID")
+    @GetMapping("/{id}")
+    public Mono<ProductDTO> getProductById(@PathVariable Long id) {
+        return reactiveProductService.getProductById(id);
+    }
+
+    @Operation(summary = "Search products by name and description, ranked by relevance")
+    @GetMapping("/search")
+    @CatalogETag
+    public Mono<Page<ProductSummaryDTO>> searchByName(@PageableDefault(page = 0, size = 10) Pageable pageable,
+                                                      @RequestParam String name) {
+        return reactiveProductService.searchByName(name, pageable);
+    }
+
+    @Operation(summary = "Filter products by category")
+    @GetMapping("/filter/category")
+    @CatalogETag
+    public Flux<ProductSummaryDTO> filterByCategory(@RequestParam String category) {
+        return reactiveProductService.filterByCategory(category);
+    }
+
+    @Operation(summary = "Filter products by price range")
+    @GetMapping("/filter/price")
+    @CatalogETag
+    public Mono<Page<ProductSummaryDTO>> filterByPriceRange(@PageableDefault(page = 0, size = 10) Pageable pageable,
+                                                            @RequestParam Double minPrice,
+                                                            @RequestParam Double maxPrice) {
+        return reactiveProductService.filterByPriceRange(pageable, minPrice, maxPrice);
+    }
+
+    @Operation(summary = "Filter products by price range and category")
+    @GetMapping("/filter/price-and-category")
+    @CatalogETag
+    public Mono<Page<ProductSummaryDTO>> filterByPriceAndCategory(
+            @PageableDefault(page = 0, size = 10) Pageable pageable,
+            @RequestParam Double minPrice,
+            @RequestParam Double maxPrice,
+            @RequestParam String category) {
+        return reactiveProductService.filterByPriceAndCategory(pageable, minPrice, maxPrice, category);
+    }
+}
@@ -0,0 +1,65 @@
+package com.prajwal.ecommerce_api.controller;
+
+import com.prajwal.ecommerce_api.dto.StockReservationDTO;
+import com.prajwal.ecommerce_api.dto.StockReservationRequestDTO;
+import com.prajwal.ecommerce_api.service.StockReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/stock/reservations")
+@Tag(name = "Stock Reservations", description = "Reserve, commit and release product stock")
+public class StockReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    public StockReservationController(StockReservationService stockReservationService) {
+        this.stockReservationService = stockReservationService;
+    }
+
+    @Operation(summary = "Reserve stock for a product",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Stock reserved",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = StockReservationDTO.class))),
+                    @ApiResponse(responseCode = "404", description = "Product not found", content = @Content),
+                    @ApiResponse(responseCode = "409", description = "Insufficient stock", content = @Content)
+            })
+    @PostMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<StockReservationDTO> reserve(@Valid @RequestBody StockReservationRequestDTO request) {
+        StockReservationDTO reservation = stockReservationService.reserve(
+                request.getProductId(), request.getQuantity(), currentUsername());
+        return new ResponseEntity<>(reservation, HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Commit a reservation (the units are sold)")
+    @ApiResponse(responseCode = "204", description = "Reservation committed")
+    @PostMapping("/{reservationId}/commit")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<Void> commit(@PathVariable String reservationId) {
+        stockReservationService.commit(reservationId, currentUsername());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Release a reservation (the units become available again)")
+    @ApiResponse(responseCode = "204", description = "Reservation released")
+    @DeleteMapping("/{reservationId}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<Void> release(@PathVariable String reservationId) {
+        stockReservationService.release(reservationId, currentUsername());
+        return ResponseEntity.noContent().build();
+    }
+
+    private String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
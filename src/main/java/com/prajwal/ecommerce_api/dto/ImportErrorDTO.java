@@ -0,0 +1,15 @@
+package com.prajwal.ecommerce_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportErrorDTO {
+    private long row;
+    private String message;
+}
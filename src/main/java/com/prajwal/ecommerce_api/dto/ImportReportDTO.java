@@ -0,0 +1,21 @@
+package com.prajwal.ecommerce_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportReportDTO {
+    private long totalRows;
+    private long imported;
+    private long failed;
+    // Capped, see ProductImportService.MAX_REPORTED_ERRORS; "failed" always has the full count
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.prajwal.ecommerce_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceBucketDTO {
+    // Inclusive lower bound, exclusive upper bound
+    private double from;
+    private double to;
+    private long count;
+}
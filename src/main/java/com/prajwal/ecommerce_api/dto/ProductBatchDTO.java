@@ -0,0 +1,19 @@
+package com.prajwal.ecommerce_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchDTO {
+    // In the order the ids were requested, duplicates collapsed
+    private List<ProductDTO> products;
+    // Ids that don't exist or belong to deactivated products
+    private List<Long> missingIds;
+}
@@ -0,0 +1,20 @@
+package com.prajwal.ecommerce_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFacetsDTO {
+    private Page<ProductSummaryDTO> products;
+    // Counts ignore the selected category so the other categories stay selectable
+    private List<CategoryCountDTO> categories;
+    private List<PriceBucketDTO> priceHistogram;
+}
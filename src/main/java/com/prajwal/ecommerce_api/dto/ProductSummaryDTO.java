@@ -0,0 +1,19 @@
+package com.prajwal.ecommerce_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// List-view shape: what a product card shows, without the description or audit fields
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSummaryDTO {
+    private Long id;
+    private String name;
+    private Double price;
+    private Integer stock;
+    private String category;
+}
@@ -0,0 +1,19 @@
+package com.prajwal.ecommerce_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservationDTO {
+    private String reservationId;
+    private Long productId;
+    private int quantity;
+    private Instant expiresAt;
+}
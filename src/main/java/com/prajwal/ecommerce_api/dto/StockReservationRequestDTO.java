@@ -0,0 +1,20 @@
+package com.prajwal.ecommerce_api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservationRequestDTO {
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @Positive(message = "Quantity must be positive")
+    private int quantity;
+}
@@ -0,0 +1,20 @@
+package com.prajwal.ecommerce_api.event;
+
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the product service whenever a product is created, updated or deactivated.
+ * {@code product} is the current state of an active product, or {@code null} once it has been deactivated.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private final Long productId;
+    private final ProductDTO product;
+
+    public boolean isRemoved() {
+        return product == null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.prajwal.ecommerce_api.event;
+
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published once per committed bulk-import chunk instead of one {@link ProductChangedEvent} per row.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductsImportedEvent {
+    private final List<ProductDTO> products;
+}
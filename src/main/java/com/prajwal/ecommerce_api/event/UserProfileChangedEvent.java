@@ -0,0 +1,14 @@
+package com.prajwal.ecommerce_api.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a user's profile (name or email) is updated or their password is rehashed. Role, enabled and
+ * delete changes are published as {@link UserSecurityChangedEvent} instead.
+ */
+@Getter
+@AllArgsConstructor
+public class UserProfileChangedEvent {
+    private final Long userId;
+}
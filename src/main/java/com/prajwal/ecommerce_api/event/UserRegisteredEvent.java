@@ -0,0 +1,15 @@
+package com.prajwal.ecommerce_api.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a user registers. A new username can equal another user's email, and a username match wins over
+ * an email match, so anything cached for that string by email is stale from now on.
+ */
+@Getter
+@AllArgsConstructor
+public class UserRegisteredEvent {
+    private final Long userId;
+    private final String username;
+}
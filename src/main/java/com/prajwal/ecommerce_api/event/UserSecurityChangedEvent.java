@@ -0,0 +1,17 @@
+package com.prajwal.ecommerce_api.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the user service when a user's role or enabled flag changes or the user is deleted.
+ * {@code securityVersion} is the user's new version; tokens carrying an older one are no longer accepted.
+ */
+@Getter
+@AllArgsConstructor
+public class UserSecurityChangedEvent {
+    private final Long userId;
+    private final int securityVersion;
+    private final boolean enabled;
+    private final boolean removed;
+}
@@ -0,0 +1,7 @@
+package com.prajwal.ecommerce_api.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
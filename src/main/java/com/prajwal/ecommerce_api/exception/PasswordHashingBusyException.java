@@ -0,0 +1,7 @@
+package com.prajwal.ecommerce_api.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
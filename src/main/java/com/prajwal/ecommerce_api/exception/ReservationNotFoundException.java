@@ -0,0 +1,7 @@
+package com.prajwal.ecommerce_api.exception;
+
+public class ReservationNotFoundException extends RuntimeException {
+    public ReservationNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.prajwal.ecommerce_api.mapper;
+
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import com.prajwal.ecommerce_api.model.Product;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface ProductMapper {
+
+    ProductDTO toDto(Product product);
+
+    ProductSummaryDTO toSummary(Product product);
+
+    ProductSummaryDTO toSummary(ProductDTO productDTO);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "active", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    Product toEntity(ProductDTO productDTO);
+}
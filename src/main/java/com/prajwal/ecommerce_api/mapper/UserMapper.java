@@ -0,0 +1,26 @@
+package com.prajwal.ecommerce_api.mapper;
+
+import com.prajwal.ecommerce_api.dto.RegisterRequestDTO;
+import com.prajwal.ecommerce_api.dto.UserDTO;
+import com.prajwal.ecommerce_api.dto.UserProfileDTO;
+import com.prajwal.ecommerce_api.model.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface UserMapper {
+
+    UserDTO toDto(User user);
+
+    UserProfileDTO toProfileDto(User user);
+
+    // Password and role are set by AuthService after hashing/validation
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "role", ignore = true)
+    @Mapping(target = "enabled", ignore = true)
+    @Mapping(target = "securityVersion", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    User fromRegisterRequest(RegisterRequestDTO registerRequest);
+}
@@ -0,0 +1,106 @@
+package com.prajwal.ecommerce_api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements each request runs and the time they spend in JDBC, published per endpoint as
+ * {@code http.server.requests.sql.statements} and {@code http.server.requests.sql.time}. Requests over the
+ * statement budget are counted in {@code http.server.requests.sql.budget.exceeded} and logged with their most
+ * repeated statement; requests slower than the threshold are logged with the SQL they ran.
+ * <p>
+ * Runs outside the security filters so the principal lookup is counted too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowRequestNanos;
+    private final int statementBudget;
+    private final int slowRequestSqlLimit;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${app.metrics.slow-request-millis:1000}") long slowRequestMillis,
+                                @Value("${app.metrics.sql-statement-budget:20}") int statementBudget,
+                                @Value("${app.metrics.slow-request-sql-limit:50}") int slowRequestSqlLimit) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestMillis);
+        this.statementBudget = statementBudget;
+        this.slowRequestSqlLimit = slowRequestSqlLimit;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.begin(slowRequestSqlLimit);
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.end();
+            record(request, stats, System.nanoTime() - start);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats, long elapsedNanos) {
+        // The route template, not the raw path, so ids and unmatched paths don't multiply the series
+        String uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                ? pattern : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.count());
+        Timer.builder("http.server.requests.sql.time")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.nanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.count() > statementBudget) {
+            Counter.builder("http.server.requests.sql.budget.exceeded")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            Map.Entry<String, Integer> repeated = stats.mostRepeated();
+            log.warn("{} {} ran {} SQL statements, over the budget of {}; most repeated ({} times): {}",
+                    request.getMethod(), request.getRequestURI(), stats.count(), statementBudget,
+                    repeated.getValue(), repeated.getKey());
+        }
+        if (elapsedNanos >= slowRequestNanos) {
+            StringBuilder statements = new StringBuilder();
+            for (RequestSqlStats.Statement statement : stats.statements()) {
+                statements.append(String.format("%n  [%.2f ms] ", statement.nanos() / 1e6)).append(statement.sql());
+            }
+            if (stats.count() > stats.statements().size()) {
+                statements.append(String.format("%n  ... %d more", stats.count() - stats.statements().size()));
+            }
+            log.warn("Slow request {} {} took {} ms, {} ms of it in {} SQL statements:{}",
+                    request.getMethod(), request.getRequestURI(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    String.format("%.2f", stats.nanos() / 1e6), stats.count(), statements);
+        }
+    }
+}
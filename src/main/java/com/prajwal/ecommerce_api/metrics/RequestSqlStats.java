@@ -0,0 +1,72 @@
+package com.prajwal.ecommerce_api.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL executed on the current request thread: how many statements, how long they spent in JDBC, and the statements
+ * themselves up to a limit. Bound to the thread by {@link RequestMetricsFilter} and fed by
+ * {@link SqlStatementListener}; work handed to other threads during the request is not counted.
+ */
+final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final int captureLimit;
+    private final List<Statement> statements = new ArrayList<>();
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private int count;
+    private long nanos;
+
+    private RequestSqlStats(int captureLimit) {
+        this.captureLimit = captureLimit;
+    }
+
+    static RequestSqlStats begin(int captureLimit) {
+        RequestSqlStats stats = new RequestSqlStats(captureLimit);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void record(String sql, long elapsedNanos) {
+        count++;
+        nanos += elapsedNanos;
+        executionsBySql.merge(sql, 1, Integer::sum);
+        if (statements.size() < captureLimit) {
+            statements.add(new Statement(sql, elapsedNanos));
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    long nanos() {
+        return nanos;
+    }
+
+    List<Statement> statements() {
+        return Collections.unmodifiableList(statements);
+    }
+
+    // The usual N+1 signature: one statement text run once per row of an earlier result
+    Map.Entry<String, Integer> mostRepeated() {
+        return executionsBySql.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+
+    record Statement(String sql, long nanos) {
+    }
+}
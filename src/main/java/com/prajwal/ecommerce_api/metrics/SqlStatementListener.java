@@ -0,0 +1,37 @@
+package com.prajwal.ecommerce_api.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Adds every statement executed through the proxied DataSource to the current request's {@link RequestSqlStats}.
+ * A JDBC batch is one round trip and counts once.
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final String STARTED = SqlStatementListener.class.getName() + ".started";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (RequestSqlStats.current() != null) {
+            execInfo.addCustomValue(STARTED, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        if (stats == null || started == null) {
+            return;
+        }
+        String sql = queryInfoList.size() == 1
+                ? queryInfoList.get(0).getQuery()
+                : queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        stats.record(sql, System.nanoTime() - started);
+    }
+}
@@ -7,18 +7,29 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_active_id", columnList = "active, id"),
+        @Index(name = "idx_products_active_price_id", columnList = "active, price, id"),
+        @Index(name = "idx_products_active_name_id", columnList = "active, name, id"),
+        @Index(name = "idx_products_active_category_price", columnList = "active, category, price")
+})
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class Product {
+    // Pooled sequence (emulated with a table on MySQL): one round trip per 50 ids, and inserts stay batchable
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
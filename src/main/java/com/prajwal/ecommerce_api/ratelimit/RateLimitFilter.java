@@ -0,0 +1,109 @@
+package com.prajwal.ecommerce_api.ratelimit;
+
+import com.prajwal.ecommerce_api.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Limits each client's request rate ahead of the JWT filter, per route group: logins and registrations, admin writes
+ * to products and users, product reads, and everything else. A client is the username of a valid bearer token, or
+ * the remote address otherwise (behind a proxy, set {@code server.forward-headers-strategy} so that is the client's).
+ * The token check is the one the JWT filter repeats, so it is answered from the verified-claims cache.
+ * <p>
+ * Every response carries {@code RateLimit-Limit}, {@code RateLimit-Remaining} and {@code RateLimit-Reset}; rejected
+ * requests get a 429 with {@code Retry-After}, counted in {@code rate.limit.rejected} by policy.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final RateLimitPolicy auth;
+    private final RateLimitPolicy adminWrite;
+    private final RateLimitPolicy productRead;
+    private final RateLimitPolicy standard;
+    private final Map<String, Counter> rejected;
+
+    public RateLimitFilter(RateLimiter rateLimiter, JwtTokenProvider jwtTokenProvider, RateLimitPolicy auth,
+                           RateLimitPolicy adminWrite, RateLimitPolicy productRead, RateLimitPolicy standard,
+                           MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.auth = auth;
+        this.adminWrite = adminWrite;
+        this.productRead = productRead;
+        this.standard = standard;
+        this.rejected = Stream.of(auth, adminWrite, productRead, standard)
+                .collect(Collectors.toMap(RateLimitPolicy::name, policy -> Counter.builder("rate.limit.rejected")
+                        .tag("policy", policy.name())
+                        .register(meterRegistry)));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimitPolicy policy = policyFor(request);
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(policy, clientKey(request), System.nanoTime());
+
+        response.setHeader("RateLimit-Limit", Integer.toString(decision.limit()));
+        response.setHeader("RateLimit-Remaining", Long.toString(decision.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(seconds(decision.resetNanos())));
+        if (!decision.allowed()) {
+            rejected.get(policy.name()).increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds(decision.retryAfterNanos())));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests, retry later\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private RateLimitPolicy policyFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        if (path.startsWith("/api/auth/")) {
+            return auth;
+        }
+        if (read && path.startsWith("/api/products")) {
+            return productRead;
+        }
+        // A user's own profile update isn't an admin write
+        if (!read && (path.startsWith("/api/products") || path.startsWith("/api/users"))
+                && !path.equals("/api/users/profile")) {
+            return adminWrite;
+        }
+        return standard;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith("Bearer ")) {
+            Claims claims = jwtTokenProvider.verify(header.substring(7));
+            if (claims != null) {
+                return "user:" + claims.getSubject();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // Rounded up, so a client that waits the advertised time is never rejected for being a few nanos early
+    private static long seconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,24 @@
+package com.prajwal.ecommerce_api.ratelimit;
+
+/**
+ * A token bucket: up to {@code capacity} requests at once, refilled at {@code refillPerSecond}. Each policy has its
+ * own buckets, so a client's logins don't use up its product reads.
+ */
+public record RateLimitPolicy(String name, int capacity, double refillPerSecond) {
+
+    public RateLimitPolicy {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit policy " + name + " needs a capacity of at least 1 and a "
+                    + "positive refill rate, got " + capacity + " and " + refillPerSecond);
+        }
+    }
+
+    long intervalNanos() {
+        return Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+    }
+
+    /** How long an empty bucket takes to fill, after which an idle client's bucket is the same as a new one. */
+    public long fillNanos() {
+        return intervalNanos() * capacity;
+    }
+}
@@ -0,0 +1,51 @@
+package com.prajwal.ecommerce_api.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per client key, each held as one {@link AtomicLong} and updated with a CAS loop, so concurrent
+ * requests never lock. The long is the bucket's theoretical arrival time (GCRA): the instant at which it would be
+ * full again. A request is admitted if pushing that instant one refill interval later keeps it within
+ * {@code capacity} intervals of now.
+ * <p>
+ * Buckets live in a size-bounded Caffeine cache and are dropped once idle for the longest fill time of any policy;
+ * by then they are full, so dropping one loses nothing. Under more live keys than {@code maxKeys}, an evicted
+ * client's bucket starts over full.
+ */
+public class RateLimiter {
+
+    /** Remaining requests in the bucket, and nanos until it is full again or, if rejected, until the next request fits. */
+    public record Decision(boolean allowed, int limit, long remaining, long resetNanos, long retryAfterNanos) {
+    }
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(long maxKeys, Duration idleTimeout) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    public Decision tryAcquire(RateLimitPolicy policy, String key, long nowNanos) {
+        AtomicLong bucket = buckets.get(policy.name() + '|' + key, k -> new AtomicLong(Long.MIN_VALUE));
+        long interval = policy.intervalNanos();
+        long fill = policy.fillNanos();
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, nowNanos) + interval;
+            long ahead = next - nowNanos;
+            if (ahead > fill) {
+                long current = Math.max(full - nowNanos, 0);
+                return new Decision(false, policy.capacity(), 0, current, ahead - fill);
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return new Decision(true, policy.capacity(), (fill - ahead) / interval, ahead, 0);
+            }
+        }
+    }
+}
@@ -1,18 +1,100 @@
 package com.prajwal.ecommerce_api.repository;
 
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
 import com.prajwal.ecommerce_api.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByCategoryAndActiveTrue(String category);
-    Page<Product> findByActiveTrue(Pageable pageable);
-    List<Product> findByNameContainingIgnoreCaseAndActiveTrue(String name);
-    Page<Product> findByPriceBetweenAndActiveTrue(Double minPrice, Double maxPrice, Pageable pageable);
-    Page<Product> findByPriceBetweenAndCategoryAndActiveTrue(Double minPrice, Double maxPrice, String category, Pageable pageable);
+    // List views select only the summary columns: no description, no managed entities to hydrate or dirty-check
+    String SELECT_SUMMARY = "select new com.prajwal.ecommerce_api.dto.ProductSummaryDTO(p.id, p.name, p.price, p.stock, p.category) from Product p ";
+
+    @Query(value = SELECT_SUMMARY + "where p.active = true",
+            countQuery = "select count(p) from Product p where p.active = true")
+    Page<ProductSummaryDTO> findActiveSummaries(Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "where p.active = true and p.category = :category")
+    List<ProductSummaryDTO> findSummariesByCategory(@Param("category") String category);
+
+    @Query(value = SELECT_SUMMARY + "where p.active = true and lower(p.name) like lower(concat('%', :name, '%'))",
+            countQuery = "select count(p) from Product p where p.active = true and lower(p.name) like lower(concat('%', :name, '%'))")
+    Page<ProductSummaryDTO> findSummariesByNameContaining(@Param("name") String name, Pageable pageable);
+
+    @Query(value = SELECT_SUMMARY + "where p.active = true and p.price between :minPrice and :maxPrice",
+            countQuery = "select count(p) from Product p where p.active = true and p.price between :minPrice and :maxPrice")
+    Page<ProductSummaryDTO> findSummariesByPriceBetween(@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice,
+                                                        Pageable pageable);
+
+    @Query(value = SELECT_SUMMARY + "where p.active = true and p.price between :minPrice and :maxPrice and p.category = :category",
+            countQuery = "select count(p) from Product p where p.active = true and p.price between :minPrice and :maxPrice and p.category = :category")
+    Page<ProductSummaryDTO> findSummariesByPriceBetweenAndCategory(@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice,
+                                                                   @Param("category") String category, Pageable pageable);
+
+    // Keyset scrolling: seeks on (sort key, id) and fetches limit + 1 rows, no offset and no count query.
+    // Not query-cached: every cursor and price range would be its own entry, and any product write (the stock
+    // write-back runs every flush interval) invalidates them all
+    Window<Product> findByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
+    Window<Product> findByPriceBetweenAndActiveTrue(Double minPrice, Double maxPrice, ScrollPosition position, Sort sort, Limit limit);
+
+    // Full-catalog batches for the search index and snapshot builds, kept out of the second-level and query caches
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Window<Product> findBatchByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
+
+    // Forward-only cursor for full-catalog export; must be consumed inside a transaction and closed. Bypasses the
+    // second-level cache like the batches above
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Product> streamByActiveTrueOrderByIdAsc();
+
+    // Facets: one row per (category, price bucket); null filters are ignored
+    @Query("""
+            select p.category, floor(p.price / :bucketSize), count(p)
+            from Product p
+            where p.active = true
+              and (:minPrice is null or p.price >= :minPrice)
+              and (:maxPrice is null or p.price <= :maxPrice)
+            group by p.category, floor(p.price / :bucketSize)
+            """)
+    List<Object[]> countByCategoryAndPriceBucket(@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice,
+                                                 @Param("bucketSize") Double bucketSize);
+
+    // Page content for facets; the total comes from the facet counts, so no count query
+    @Query(SELECT_SUMMARY + """
+            where p.active = true
+              and (:category is null or p.category = :category)
+              and (:minPrice is null or p.price >= :minPrice)
+              and (:maxPrice is null or p.price <= :maxPrice)
+            """)
+    List<ProductSummaryDTO> findFacetPage(@Param("category") String category, @Param("minPrice") Double minPrice,
+                                          @Param("maxPrice") Double maxPrice, Pageable pageable);
+
+    // Row lock for read-modify-write of a product, so admin edits and the stock write-back never overwrite each other.
+    // Read from the database, not the second-level cache; the update then refreshes just this id's cache entry
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.prajwal.ecommerce_api.repository;
+
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import com.prajwal.ecommerce_api.exception.InvalidFilterException;
+import com.prajwal.ecommerce_api.model.Product;
+import io.r2dbc.spi.Readable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Non-blocking reads of the products table over R2DBC, for the /api/reactive endpoints. Same rows and shapes as the
+ * {@link ProductRepository} queries they mirror, but nothing here goes through JPA: no second-level or query cache,
+ * no replica routing, and no transactions (each read is a single statement, or a page and its count side by side).
+ */
+@Repository
+public class ReactiveProductRepository {
+
+    private static final String SELECT_SUMMARY = "select id, name, price, stock, category from products ";
+    private static final String SELECT_PRODUCT =
+            "select id, name, description, price, stock, category, active, created_at, updated_at from products ";
+    // Sortable Product properties and their columns; anything else is rejected rather than spliced into the SQL
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id", "name", "name", "price", "price", "stock", "stock", "category", "category",
+            "createdAt", "created_at", "updatedAt", "updated_at");
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveProductRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Product> findActiveById(Long id) {
+        return databaseClient.sql(SELECT_PRODUCT + "where id = :id and active = true")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    public Flux<Product> findActiveByIds(Collection<Long> ids) {
+        return databaseClient.sql(SELECT_PRODUCT + "where id in (:ids) and active = true")
+                .bind("ids", ids)
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    /** The whole active catalog in id order, read as fast as the subscriber requests it. */
+    public Flux<Product> streamActive() {
+        return databaseClient.sql(SELECT_PRODUCT + "where active = true order by id")
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    public Mono<Page<ProductSummaryDTO>> findActiveSummaries(Pageable pageable) {
+        return page("where active = true", Map.of(), pageable);
+    }
+
+    public Flux<ProductSummaryDTO> findSummariesByCategory(String category) {
+        return databaseClient.sql(SELECT_SUMMARY + "where active = true and category = :category")
+                .bind("category", category)
+                .map(ReactiveProductRepository::toSummary)
+                .all();
+    }
+
+    public Mono<Page<ProductSummaryDTO>> findSummariesByNameContaining(String name, Pageable pageable) {
+        return page("where active = true and lower(name) like lower(concat('%', :name, '%'))",
+                Map.of("name", name), pageable);
+    }
+
+    public Mono<Page<ProductSummaryDTO>> findSummariesByPriceBetween(Double minPrice, Double maxPrice,
+                                                                     Pageable pageable) {
+        return page("where active = true and price between :minPrice and :maxPrice",
+                Map.of("minPrice", minPrice, "maxPrice", maxPrice), pageable);
+    }
+
+    public Mono<Page<ProductSummaryDTO>> findSummariesByPriceBetweenAndCategory(Double minPrice, Double maxPrice,
+                                                                                String category, Pageable pageable) {
+        return page("where active = true and price between :minPrice and :maxPrice and category = :category",
+                Map.of("minPrice", minPrice, "maxPrice", maxPrice, "category", category), pageable);
+    }
+
+    // The page and its count go out together on two connections, so a page costs one round trip of latency
+    private Mono<Page<ProductSummaryDTO>> page(String where, Map<String, Object> parameters, Pageable pageable) {
+        Mono<List<ProductSummaryDTO>> content = databaseClient
+                .sql(SELECT_SUMMARY + where + orderBy(pageable.getSort())
+                        + " limit " + pageable.getPageSize() + " offset " + pageable.getOffset())
+                .bindValues(parameters)
+                .map(ReactiveProductRepository::toSummary)
+                .all()
+                .collectList();
+        Mono<Long> total = databaseClient.sql("select count(*) from products " + where)
+                .bindValues(parameters)
+                .map(row -> row.get(0, Long.class))
+                .one();
+        return Mono.zip(content, total, (rows, count) -> new PageImpl<>(rows, pageable, count));
+    }
+
+    // Always ends on id, so pages are stable even when the requested sort has ties
+    private static String orderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ", " order by ", "");
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new InvalidFilterException("Cannot sort by " + order.getProperty());
+            }
+            orderBy.add(column + (order.isAscending() ? " asc" : " desc"));
+        }
+        orderBy.add("id");
+        return orderBy.toString();
+    }
+
+    private static ProductSummaryDTO toSummary(Readable row) {
+        return new ProductSummaryDTO(row.get("id", Long.class), row.get("name", String.class),
+                row.get("price", Double.class), row.get("stock", Integer.class), row.get("category", String.class));
+    }
+
+    private static Product toProduct(Readable row) {
+        return new Product(row.get("id", Long.class), row.get("name", String.class),
+                row.get("description", String.class), row.get("price", Double.class),
+                row.get("stock", Integer.class), row.get("category", String.class),
+                Boolean.TRUE.equals(row.get("active", Boolean.class)),
+                row.get("created_at", LocalDateTime.class), row.get("updated_at", LocalDateTime.class));
+    }
+}
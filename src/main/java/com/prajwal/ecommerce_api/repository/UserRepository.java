@@ -1,17 +1,32 @@
 package com.prajwal.ecommerce_api.repository;
 
 import com.prajwal.ecommerce_api.model.User;
+import com.prajwal.ecommerce_api.security.UserSecurityState;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // Query-cached for the per-request principal lookups; results are invalidated on any write to users
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
-    Optional<User> findByUsernameOrEmail(String username, String email); // 👈 Add this line
+    // One query for a login identifier; can match two users when one's username is another's email
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<User> findByUsernameOrEmail(String username, String email);
+
+    // Every user's version without loading entities, for the stateless token check (UserSecurityVersions)
+    @Query("select new com.prajwal.ecommerce_api.security.UserSecurityState(u.id, u.securityVersion, u.enabled) from User u")
+    List<UserSecurityState> findAllSecurityStates();
 
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
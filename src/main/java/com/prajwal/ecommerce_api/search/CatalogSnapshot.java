@@ -0,0 +1,426 @@
+package com.prajwal.ecommerce_api.search;
+
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import com.prajwal.ecommerce_api.event.ProductChangedEvent;
+import com.prajwal.ecommerce_api.event.ProductsImportedEvent;
+import com.prajwal.ecommerce_api.mapper.ProductMapper;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.*;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Column-oriented, in-memory copy of the active catalog for price range and price + category queries.
+ * <p>
+ * The base is a set of parallel primitive arrays sorted by (price in cents, id), with one bitmap of positions per
+ * category, so a query is two binary searches plus a bitmap intersection. Writes don't touch the arrays: they add
+ * the old base position to a short sorted list of superseded positions and put the new row in a small sorted
+ * overlay, so a write costs in proportion to the overlay, not the catalog. Once either grows past
+ * {@code app.catalog.snapshot.max-overlay-size} they are merged back into a fresh base on the task executor, and the
+ * writes that land meanwhile are replayed on top. Every change publishes a new immutable {@link Generation}, so
+ * readers never lock.
+ * <p>
+ * Prices are held as whole cents; sub-cent prices are rounded. Categories match ignoring case.
+ */
+@Component
+@ConditionalOnProperty(name = "app.catalog.snapshot.enabled", havingValue = "true")
+public class CatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+    // Absorbs floating point noise such as 0.29 * 100 == 28.999999999999996 when converting bounds to cents
+    private static final double CENTS_TOLERANCE = 1e-6;
+    private static final Sort PRICE_ASCENDING = Sort.by("price");
+    private static final Comparator<ProductSummaryDTO> ROW_ORDER = Comparator
+            .comparingLong((ProductSummaryDTO row) -> toCents(row.getPrice()))
+            .thenComparing(ProductSummaryDTO::getId);
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final int maxOverlaySize;
+    private final Executor compactionExecutor;
+
+    private final Lock writeLock = new ReentrantLock();
+    // Changes to replay on the next base: those committed while it is being built or compacted
+    private final List<Change> pendingChanges = new ArrayList<>();
+    private boolean compacting;
+    private volatile Generation generation = new Generation(List.of());
+    private volatile boolean ready;
+
+    public CatalogSnapshot(ProductRepository productRepository, ProductMapper productMapper,
+                           @Value("${app.catalog.snapshot.max-overlay-size:1024}") int maxOverlaySize,
+                           @Qualifier("applicationTaskExecutor") Executor compactionExecutor) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.maxOverlaySize = maxOverlaySize;
+        this.compactionExecutor = compactionExecutor;
+    }
+
+    /** True once built, for paged requests that are unsorted or sorted by ascending price. */
+    public boolean canServe(Pageable pageable) {
+        return ready && pageable.isPaged()
+                && (pageable.getSort().isUnsorted() || pageable.getSort().equals(PRICE_ASCENDING));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        List<ProductSummaryDTO> loaded = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Product> window;
+        do {
+            window = productRepository.findBatchByActiveTrue(position, Sort.by("id"), Limit.of(BUILD_BATCH_SIZE));
+            window.forEach(product -> loaded.add(productMapper.toSummary(product)));
+            if (!window.isEmpty()) {
+                position = window.positionAt(window.size() - 1);
+            }
+        } while (window.hasNext());
+        loaded.sort(ROW_ORDER);
+
+        writeLock.lock();
+        try {
+            Generation built = new Generation(loaded);
+            // Changes committed while we were loading are newer than what we read
+            generation = pendingChanges.isEmpty() ? built : apply(built, pendingChanges);
+            pendingChanges.clear();
+            ready = true;
+            compactIfNeeded();
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Catalog snapshot built with {} products in {} ms",
+                loaded.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Before CatalogVersion bumps, see there
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductSummaryDTO row = event.isRemoved() ? null : productMapper.toSummary(event.getProduct());
+        update(List.of(new Change(event.getProductId(), row)));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        List<Change> changes = new ArrayList<>(event.getProducts().size());
+        for (ProductDTO product : event.getProducts()) {
+            changes.add(new Change(product.getId(), productMapper.toSummary(product)));
+        }
+        update(changes);
+    }
+
+    /**
+     * Active products with {@code minPrice <= price <= maxPrice} (and the given category, in any case, if not null),
+     * ordered by price then id.
+     */
+    public Page<ProductSummaryDTO> findByPriceRange(double minPrice, double maxPrice, String category, Pageable pageable) {
+        Generation current = generation;
+        long minCents = (long) Math.ceil(minPrice * 100 - CENTS_TOLERANCE);
+        long maxCents = (long) Math.floor(maxPrice * 100 + CENTS_TOLERANCE);
+
+        // Base: binary search the price column, then intersect with the category bitmap and drop superseded rows
+        int from = lowerBound(current.priceCents, minCents);
+        int to = Math.max(from, upperBound(current.priceCents, maxCents));
+        BitSet matches;
+        if (category == null) {
+            matches = new BitSet(to - from);
+            matches.set(0, to - from);
+        } else {
+            Integer categoryId = current.categoryIds.get(categoryKey(category));
+            matches = categoryId == null ? new BitSet() : current.categoryBitmaps[categoryId].get(from, to);
+        }
+        int supersededFrom = Arrays.binarySearch(current.superseded, from);
+        for (int i = supersededFrom >= 0 ? supersededFrom : -supersededFrom - 1;
+             i < current.superseded.length && current.superseded[i] < to; i++) {
+            matches.clear(current.superseded[i] - from);
+        }
+
+        List<ProductSummaryDTO> overlayMatches = new ArrayList<>();
+        int overlayTo = upperBound(current.overlayCents, maxCents);
+        for (int i = lowerBound(current.overlayCents, minCents); i < overlayTo; i++) {
+            ProductSummaryDTO row = current.overlay[i];
+            if (category == null || category.equalsIgnoreCase(row.getCategory())) {
+                overlayMatches.add(row);
+            }
+        }
+
+        // Merge both sorted sources, skipping the offset
+        List<ProductSummaryDTO> content = new ArrayList<>(pageable.getPageSize());
+        long skip = pageable.getOffset();
+        int bit = matches.nextSetBit(0);
+        int overlayIndex = 0;
+        while (content.size() < pageable.getPageSize() && (bit >= 0 || overlayIndex < overlayMatches.size())) {
+            ProductSummaryDTO row;
+            if (overlayIndex == overlayMatches.size()
+                    || (bit >= 0 && compare(current.priceCents[from + bit], current.ids[from + bit],
+                    overlayMatches.get(overlayIndex)) < 0)) {
+                row = current.rows[from + bit];
+                bit = matches.nextSetBit(bit + 1);
+            } else {
+                row = overlayMatches.get(overlayIndex++);
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                content.add(row);
+            }
+        }
+        return new PageImpl<>(content, pageable, matches.cardinality() + overlayMatches.size());
+    }
+
+    private void update(List<Change> changes) {
+        writeLock.lock();
+        try {
+            if (!ready) {
+                pendingChanges.addAll(changes);
+                return;
+            }
+            generation = apply(generation, changes);
+            if (compacting) {
+                pendingChanges.addAll(changes);
+            } else {
+                compactIfNeeded();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void compactIfNeeded() {
+        Generation current = generation;
+        if (compacting || Math.max(current.superseded.length, current.overlay.length) <= maxOverlaySize) {
+            return;
+        }
+        compacting = true;
+        try {
+            compactionExecutor.execute(() -> compact(current));
+        } catch (RuntimeException ex) {
+            compacting = false;
+            log.warn("Could not schedule catalog snapshot compaction", ex);
+        }
+    }
+
+    private void compact(Generation source) {
+        Generation compacted = null;
+        try {
+            compacted = source.compact();
+        } catch (RuntimeException ex) {
+            log.warn("Catalog snapshot compaction failed", ex);
+        }
+        writeLock.lock();
+        try {
+            // Skipped if a rebuild replaced the base meanwhile, its generation is newer than ours
+            if (compacted != null && generation.rows == source.rows) {
+                generation = pendingChanges.isEmpty() ? compacted : apply(compacted, pendingChanges);
+            }
+            pendingChanges.clear();
+            compacting = false;
+            compactIfNeeded();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Copies only the superseded positions and the overlay, both bounded by the compaction threshold. */
+    private static Generation apply(Generation current, List<Change> changes) {
+        // Last change per product wins
+        Map<Long, ProductSummaryDTO> latest = new HashMap<>();
+        for (Change change : changes) {
+            latest.put(change.productId(), change.row());
+        }
+
+        int[] positions = latest.keySet().stream()
+                .mapToInt(current::positionOf)
+                .filter(position -> position >= 0)
+                .sorted()
+                .toArray();
+        int[] superseded = new int[current.superseded.length + positions.length];
+        int size = 0;
+        for (int i = 0, j = 0; i < current.superseded.length || j < positions.length; ) {
+            int next = j == positions.length || (i < current.superseded.length && current.superseded[i] <= positions[j])
+                    ? current.superseded[i++] : positions[j++];
+            if (size == 0 || superseded[size - 1] != next) {
+                superseded[size++] = next;
+            }
+        }
+
+        List<ProductSummaryDTO> written = new ArrayList<>(latest.size());
+        for (ProductSummaryDTO row : latest.values()) {
+            if (row != null) {
+                written.add(row);
+            }
+        }
+        written.sort(ROW_ORDER);
+        List<ProductSummaryDTO> overlay = new ArrayList<>(current.overlay.length + written.size());
+        int w = 0;
+        for (ProductSummaryDTO row : current.overlay) {
+            if (latest.containsKey(row.getId())) {
+                continue;
+            }
+            while (w < written.size() && ROW_ORDER.compare(written.get(w), row) < 0) {
+                overlay.add(written.get(w++));
+            }
+            overlay.add(row);
+        }
+        overlay.addAll(written.subList(w, written.size()));
+
+        return new Generation(current, Arrays.copyOf(superseded, size), overlay.toArray(new ProductSummaryDTO[0]));
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(long priceCents, long id, ProductSummaryDTO row) {
+        int byPrice = Long.compare(priceCents, toCents(row.getPrice()));
+        return byPrice != 0 ? byPrice : Long.compare(id, row.getId());
+    }
+
+    private static long toCents(Double price) {
+        return Math.round(price * 100);
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? null : category.toLowerCase(Locale.ROOT);
+    }
+
+    private record Change(Long productId, ProductSummaryDTO row) {
+    }
+
+    /** Immutable once published; a write produces a new generation sharing the base columns. */
+    private static final class Generation {
+        // Base columns, sorted by (priceCents, id)
+        private final long[] priceCents;
+        private final long[] ids;
+        private final ProductSummaryDTO[] rows;
+        private final Map<String, Integer> categoryIds;
+        private final BitSet[] categoryBitmaps;
+        // id -> base position, as a sorted id column and the matching positions
+        private final long[] sortedIds;
+        private final int[] sortedIdPositions;
+
+        // Sorted base positions replaced or removed since the base was built, and the rows written since
+        private final int[] superseded;
+        private final ProductSummaryDTO[] overlay;
+        private final long[] overlayCents;
+
+        private Generation(List<ProductSummaryDTO> sortedRows) {
+            int size = sortedRows.size();
+            priceCents = new long[size];
+            ids = new long[size];
+            rows = sortedRows.toArray(new ProductSummaryDTO[0]);
+            categoryIds = new HashMap<>();
+            List<BitSet> bitmaps = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                ProductSummaryDTO row = rows[i];
+                priceCents[i] = toCents(row.getPrice());
+                ids[i] = row.getId();
+                int categoryId = categoryIds.computeIfAbsent(categoryKey(row.getCategory()), name -> {
+                    bitmaps.add(new BitSet(size));
+                    return bitmaps.size() - 1;
+                });
+                bitmaps.get(categoryId).set(i);
+            }
+            categoryBitmaps = bitmaps.toArray(new BitSet[0]);
+
+            Integer[] byId = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                byId[i] = i;
+            }
+            Arrays.sort(byId, Comparator.comparingLong(position -> ids[position]));
+            sortedIds = new long[size];
+            sortedIdPositions = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedIdPositions[i] = byId[i];
+                sortedIds[i] = ids[byId[i]];
+            }
+
+            superseded = new int[0];
+            overlay = new ProductSummaryDTO[0];
+            overlayCents = new long[0];
+        }
+
+        private Generation(Generation base, int[] superseded, ProductSummaryDTO[] overlay) {
+            this.priceCents = base.priceCents;
+            this.ids = base.ids;
+            this.rows = base.rows;
+            this.categoryIds = base.categoryIds;
+            this.categoryBitmaps = base.categoryBitmaps;
+            this.sortedIds = base.sortedIds;
+            this.sortedIdPositions = base.sortedIdPositions;
+            this.superseded = superseded;
+            this.overlay = overlay;
+            this.overlayCents = new long[overlay.length];
+            for (int i = 0; i < overlay.length; i++) {
+                overlayCents[i] = toCents(overlay[i].getPrice());
+            }
+        }
+
+        int positionOf(long id) {
+            int index = Arrays.binarySearch(sortedIds, id);
+            return index >= 0 ? sortedIdPositions[index] : -1;
+        }
+
+        /** Folds the overlay back into a fresh base; both sides are already sorted, so this is a linear merge. */
+        Generation compact() {
+            List<ProductSummaryDTO> merged = new ArrayList<>(rows.length - superseded.length + overlay.length);
+            int next = 0;
+            int skip = 0;
+            for (int i = 0; i < rows.length; i++) {
+                if (skip < superseded.length && superseded[skip] == i) {
+                    skip++;
+                    continue;
+                }
+                while (next < overlay.length && compare(priceCents[i], ids[i], overlay[next]) > 0) {
+                    merged.add(overlay[next++]);
+                }
+                merged.add(rows[i]);
+            }
+            merged.addAll(Arrays.asList(overlay).subList(next, overlay.length));
+            return new Generation(merged);
+        }
+    }
+}
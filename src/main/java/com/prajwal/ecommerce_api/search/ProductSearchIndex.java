@@ -0,0 +1,251 @@
+package com.prajwal.ecommerce_api.search;
+
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.event.ProductChangedEvent;
+import com.prajwal.ecommerce_api.event.ProductsImportedEvent;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.*;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over active products' name and description, ranked with BM25.
+ * Built once the application is ready and then kept current from {@link ProductChangedEvent}s,
+ * so ranking never touches the database. Only ids, lengths and term frequencies are held; the caller loads the
+ * products of the page it returns.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (product id -> weighted term frequency); sorted so the last query term can match by prefix
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, IndexedProduct> documents = new HashMap<>();
+    private final List<ProductChangedEvent> pendingChanges = new ArrayList<>();
+    private long totalLength;
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        long indexed = 0;
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Product> window;
+        do {
+            window = productRepository.findBatchByActiveTrue(position, Sort.by("id"), Limit.of(BUILD_BATCH_SIZE));
+            // Each batch goes straight into the index, so only one batch of rows is held at a time. Searches aren't
+            // served until it is ready, and changes meanwhile wait in pendingChanges
+            lock.writeLock().lock();
+            try {
+                window.forEach(product -> index(product.getId(), product.getName(), product.getDescription()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            indexed += window.size();
+            if (!window.isEmpty()) {
+                position = window.positionAt(window.size() - 1);
+            }
+        } while (window.hasNext());
+
+        lock.writeLock().lock();
+        try {
+            // Changes committed while we were loading are newer than what we read
+            pendingChanges.forEach(this::apply);
+            pendingChanges.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index built with {} products in {} ms",
+                indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Before CatalogVersion bumps, see there
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(event);
+            } else {
+                pendingChanges.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (ProductDTO product : event.getProducts()) {
+                ProductChangedEvent change = new ProductChangedEvent(product.getId(), product);
+                if (ready) {
+                    apply(change);
+                } else {
+                    pendingChanges.add(change);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Ids of the requested page of matches, most relevant first (ties by id), and the total number of matches. */
+    public Page<Long> search(String query, Pageable pageable) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = score(terms);
+            return new PageImpl<>(topPage(scores, pageable), pageable, scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keeps only the best offset + size matches in a min-heap, O(m log k) rather than sorting all m matches
+    private static List<Long> topPage(Map<Long, Double> scores, Pageable pageable) {
+        if (pageable.getOffset() >= scores.size()) {
+            return List.of();
+        }
+        int keep = (int) Math.min(scores.size(), pageable.getOffset() + pageable.getPageSize());
+        Comparator<Map.Entry<Long, Double>> byRelevance = Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        // Least relevant of those kept at the head
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(keep, byRelevance.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (best.size() < keep) {
+                best.add(entry);
+            } else if (byRelevance.compare(entry, best.peek()) < 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+        Long[] ranked = new Long[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll().getKey();
+        }
+        return Arrays.asList(ranked).subList((int) pageable.getOffset(), ranked.length);
+    }
+
+    private Map<Long, Double> score(List<String> terms) {
+        Map<Long, Double> scores = new HashMap<>();
+        if (documents.isEmpty()) {
+            return scores;
+        }
+        double averageLength = (double) totalLength / documents.size();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean last = i == terms.size() - 1;
+            Map<String, Map<Long, Integer>> matches = last
+                    ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                    : postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of();
+            int expansions = 0;
+            for (Map<Long, Integer> posting : matches.values()) {
+                if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                double idf = Math.log(1 + (documents.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((productId, tf) -> {
+                    double norm = K1 * (1 - B + B * documents.get(productId).length() / averageLength);
+                    scores.merge(productId, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                });
+            }
+        }
+        return scores;
+    }
+
+    private void apply(ProductChangedEvent event) {
+        remove(event.getProductId());
+        if (!event.isRemoved()) {
+            ProductDTO product = event.getProduct();
+            index(product.getId(), product.getName(), product.getDescription());
+        }
+    }
+
+    private void index(Long productId, String name, String description) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        tokenize(name).forEach(term -> termFrequencies.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(description).forEach(term -> termFrequencies.merge(term, 1, Integer::sum));
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(productId, entry.getValue());
+            length += entry.getValue();
+        }
+        documents.put(productId, new IndexedProduct(length, termFrequencies.keySet().toArray(String[]::new)));
+        totalLength += length;
+    }
+
+    private void remove(Long productId) {
+        IndexedProduct existing = documents.remove(productId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(productId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= existing.length();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private record IndexedProduct(int length, String[] terms) {
+    }
+}
@@ -1,30 +1,63 @@
 package com.prajwal.ecommerce_api.security;
 
+import com.prajwal.ecommerce_api.cache.UserPrincipalCache;
+import com.prajwal.ecommerce_api.event.UserProfileChangedEvent;
 import com.prajwal.ecommerce_api.model.User;
 import com.prajwal.ecommerce_api.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+@Timed(value = "service.method", histogram = true)
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserPrincipalCache userPrincipalCache,
+                                    ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.userPrincipalCache = userPrincipalCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public UserDetails loadUserByUsername(String identifier) throws UsernameNotFoundException {
-        // Try username, then email
-        User user = userRepository
-                .findByUsername(identifier)
-                .or(() -> userRepository.findByEmail(identifier))
-                .orElseThrow(() ->
-                        new UsernameNotFoundException("User not found: " + identifier)
-                );
+        UserPrincipal principal = userPrincipalCache.get(identifier, this::findByUsernameOrEmail);
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found: " + identifier);
+        }
+        return principal;
+    }
+
+    // Called by DaoAuthenticationProvider after a successful login whose hash is at an outdated cost. Its own
+    // transaction, since the login runs in a read-only one
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user.getId()));
         return new UserPrincipal(user);
     }
+
+    // Username wins, as when it was looked up first and email second
+    private User findByUsernameOrEmail(String identifier) {
+        List<User> users = userRepository.findByUsernameOrEmail(identifier, identifier);
+        return users.stream()
+                .filter(user -> user.getUsername().equalsIgnoreCase(identifier))
+                .findFirst()
+                .orElse(users.isEmpty() ? null : users.get(0));
+    }
 }
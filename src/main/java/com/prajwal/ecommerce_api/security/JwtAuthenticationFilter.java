@@ -1,47 +1,92 @@
 package com.prajwal.ecommerce_api.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates requests carrying a bearer token. By default the user is loaded for every request; with
+ * {@code app.jwt.stateless-principal.enabled} the principal is built from the token's claims and the token is only
+ * checked against the user's current security version in {@link UserSecurityVersions}, so no query is made. Users
+ * that map doesn't know yet, and tokens issued without a version, still take the lookup.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    // Null unless app.jwt.stateless-principal.enabled
+    private final UserSecurityVersions userSecurityVersions;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService,
+                                   ObjectProvider<UserSecurityVersions> userSecurityVersions) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
+        this.userSecurityVersions = userSecurityVersions.getIfAvailable();
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String token = getJwtFromRequest(request);
+        Claims claims = token != null ? jwtTokenProvider.verify(token) : null;
 
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            String username = jwtTokenProvider.getUsernameFromToken(token);
-            UserPrincipal userPrincipal = (UserPrincipal) userDetailsService.loadUserByUsername(username);
+        if (claims != null) {
+            UserPrincipal userPrincipal = userSecurityVersions != null
+                    ? statelessPrincipal(claims)
+                    : (UserPrincipal) userDetailsService.loadUserByUsername(claims.getSubject());
 
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userPrincipal, null, userPrincipal.getAuthorities());
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (userPrincipal != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        userPrincipal, null, userPrincipal.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
 
+    // Null when the token has been revoked by a role change, disable or delete since it was issued
+    private UserPrincipal statelessPrincipal(Claims claims) {
+        UserPrincipal fromClaims = jwtTokenProvider.principalFromClaims(claims);
+        if (fromClaims != null) {
+            switch (userSecurityVersions.check(fromClaims.getId(), fromClaims.getSecurityVersion())) {
+                case CURRENT:
+                    return fromClaims;
+                case REVOKED:
+                    return null;
+                case UNKNOWN:
+                    break;
+            }
+        }
+
+        UserPrincipal loaded;
+        try {
+            loaded = (UserPrincipal) userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+        if (fromClaims == null) {
+            return loaded;
+        }
+        userSecurityVersions.record(loaded.getId(), loaded.getSecurityVersion(), loaded.isEnabled());
+        return loaded.getId().equals(fromClaims.getId()) && loaded.getSecurityVersion() == fromClaims.getSecurityVersion()
+                ? loaded : null;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -49,4 +94,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-}
\ No newline at end of file
+}
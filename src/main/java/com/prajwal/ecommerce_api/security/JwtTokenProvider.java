@@ -1,5 +1,6 @@
 package com.prajwal.ecommerce_api.security;
 
+import com.prajwal.ecommerce_api.model.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -8,52 +9,87 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.List;
 
+/**
+ * Issues and verifies HS512 tokens. The key and parser are built once; a token is parsed and its signature checked
+ * once, and after that its claims come from {@link VerifiedTokenCache} until it expires.
+ * <p>
+ * Tokens carry the user's id and security version next to the role, so a principal can be built from the claims
+ * alone (see {@link JwtAuthenticationFilter}).
+ */
 @Component
 public class JwtTokenProvider {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String SECURITY_VERSION_CLAIM = "ver";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String ROLE_PREFIX = "ROLE_";
 
-    @Value("${app.jwt.expiration-millis}")
-    private long jwtExpirationMillis;
+    private final long jwtExpirationMillis;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtTokenProvider(@Value("${app.jwt.secret}") String jwtSecret,
+                            @Value("${app.jwt.expiration-millis}") long jwtExpirationMillis,
+                            VerifiedTokenCache verifiedTokenCache) {
+        this.jwtExpirationMillis = jwtExpirationMillis;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     public String generateToken(UserPrincipal userPrincipal) {
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
-                .claim("roles", userPrincipal.getAuthorities().stream()
+                .claim(USER_ID_CLAIM, userPrincipal.getId())
+                .claim(SECURITY_VERSION_CLAIM, userPrincipal.getSecurityVersion())
+                .claim(ROLES_CLAIM, userPrincipal.getAuthorities().stream()
                         .map(Object::toString)
                         .toList())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMillis))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /** Claims of a valid, unexpired token, or null if it is malformed, tampered with or expired. */
+    public Claims verify(String token) {
+        return verifiedTokenCache.get(token, this::parse);
+    }
+
+    /** The principal described by verified claims, or null for a token issued before ids and versions were added. */
+    public UserPrincipal principalFromClaims(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        Number securityVersion = claims.get(SECURITY_VERSION_CLAIM, Number.class);
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (userId == null || securityVersion == null || roles == null || roles.size() != 1
+                || !(roles.get(0) instanceof String authority) || !authority.startsWith(ROLE_PREFIX)) {
+            return null;
+        }
+        Role role = Role.valueOf(authority.substring(ROLE_PREFIX.length()));
+        return new UserPrincipal(userId.longValue(), claims.getSubject(), role, securityVersion.intValue());
+    }
+
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = verify(token);
+        if (claims == null) {
+            throw new MalformedJwtException("Invalid JWT");
+        }
         return claims.getSubject();
     }
 
     public boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+
+    private Claims parse(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException e) {
-            // Log the exception for debugging (e.g. expired, malformed, etc.)
-            return false;
+            // Expired, malformed, bad signature etc.
+            return null;
         }
     }
 }
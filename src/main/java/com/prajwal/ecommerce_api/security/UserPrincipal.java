@@ -14,12 +14,23 @@ public class UserPrincipal implements UserDetails {
     private final String username;
     private final String password;
     private final Role role;
+    private final int securityVersion;
 
     public UserPrincipal(User user) {
         this.id = user.getId();
         this.username = user.getUsername();
         this.password = user.getPassword();
         this.role = user.getRole();
+        this.securityVersion = user.getSecurityVersion();
+    }
+
+    /** From a verified token's claims; carries no password. */
+    public UserPrincipal(Long id, String username, Role role, int securityVersion) {
+        this.id = id;
+        this.username = username;
+        this.password = null;
+        this.role = role;
+        this.securityVersion = securityVersion;
     }
 
     @Override
@@ -60,4 +71,12 @@ public class UserPrincipal implements UserDetails {
     public Long getId() {
         return id;
     }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public int getSecurityVersion() {
+        return securityVersion;
+    }
 }
\ No newline at end of file
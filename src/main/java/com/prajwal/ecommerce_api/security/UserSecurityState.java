@@ -0,0 +1,5 @@
+package com.prajwal.ecommerce_api.security;
+
+/** A user's current security version and enabled flag, as loaded into {@link UserSecurityVersions}. */
+public record UserSecurityState(Long id, int securityVersion, boolean enabled) {
+}
@@ -0,0 +1,184 @@
+package com.prajwal.ecommerce_api.security;
+
+import com.prajwal.ecommerce_api.event.UserSecurityChangedEvent;
+import com.prajwal.ecommerce_api.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Every user's current security version and enabled flag, so a token's claims can be checked without a query.
+ * <p>
+ * Held as an open-addressing table of primitive ids and packed {@code version << 1 | enabled} ints, about 24 bytes
+ * per user. Reads are optimistic and don't block; writers (admin changes after commit, the periodic reload) take the
+ * write lock. Versions only move forward: a change recorded here is never undone by a reload that read the row
+ * before the change committed.
+ * <p>
+ * The table is reloaded every {@code app.jwt.stateless-principal.refresh-millis}, which is how changes made on
+ * other instances arrive. Users it doesn't know yet (registered since the last reload) are {@link Status#UNKNOWN},
+ * and the caller falls back to loading them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jwt.stateless-principal.enabled", havingValue = "true")
+public class UserSecurityVersions {
+
+    public enum Status { CURRENT, REVOKED, UNKNOWN }
+
+    private static final Logger log = LoggerFactory.getLogger(UserSecurityVersions.class);
+
+    // Ids come from a sequence starting at 1, so 0 marks a free slot
+    private static final long FREE = 0;
+    private static final int ABSENT = Integer.MIN_VALUE;
+    // Highest possible version, so it wins every merge, and never matches a token
+    private static final int DELETED = Integer.MAX_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final UserRepository userRepository;
+    private final StampedLock lock = new StampedLock();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] states = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public UserSecurityVersions(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public Status check(long userId, int securityVersion) {
+        int state = get(userId);
+        if (state == ABSENT) {
+            return Status.UNKNOWN;
+        }
+        return state != DELETED && state == pack(securityVersion, true) ? Status.CURRENT : Status.REVOKED;
+    }
+
+    public void record(long userId, int securityVersion, boolean enabled) {
+        put(userId, pack(securityVersion, enabled));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        if (event.isRemoved()) {
+            put(event.getUserId(), DELETED);
+        } else {
+            record(event.getUserId(), event.getSecurityVersion(), event.isEnabled());
+        }
+    }
+
+    // Runs once at startup, then picks up changes made on other instances
+    @Scheduled(fixedDelayString = "${app.jwt.stateless-principal.refresh-millis:60000}")
+    public void reload() {
+        long start = System.nanoTime();
+        List<UserSecurityState> loaded = userRepository.findAllSecurityStates();
+        int capacity = capacityFor(loaded.size());
+        long[] newIds = new long[capacity];
+        int[] newStates = new int[capacity];
+
+        long stamp = lock.writeLock();
+        try {
+            // Users missing from the load were deleted and are dropped; their tokens then fail the fallback lookup
+            for (UserSecurityState user : loaded) {
+                int state = pack(user.securityVersion(), user.enabled());
+                int current = find(ids, states, user.id());
+                insert(newIds, newStates, user.id(), current == ABSENT ? state : newer(current, state));
+            }
+            ids = newIds;
+            states = newStates;
+            size = loaded.size();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.debug("Loaded security versions of {} users in {} ms", loaded.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int get(long userId) {
+        long stamp = lock.tryOptimisticRead();
+        int state = find(ids, states, userId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                state = find(ids, states, userId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return state;
+    }
+
+    private void put(long userId, int state) {
+        long stamp = lock.writeLock();
+        try {
+            int current = find(ids, states, userId);
+            if (current != ABSENT) {
+                insert(ids, states, userId, newer(current, state));
+                return;
+            }
+            if ((size + 1) * 2 > ids.length) {
+                resize();
+            }
+            insert(ids, states, userId, state);
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void resize() {
+        long[] newIds = new long[ids.length * 2];
+        int[] newStates = new int[states.length * 2];
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != FREE) {
+                insert(newIds, newStates, ids[i], states[i]);
+            }
+        }
+        ids = newIds;
+        states = newStates;
+    }
+
+    // Tolerates arrays changing underneath an optimistic read: bounded probing, result discarded if invalidated
+    private static int find(long[] ids, int[] states, long userId) {
+        int mask = Math.min(ids.length, states.length) - 1;
+        for (int i = slot(userId, mask), probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+            long id = ids[i];
+            if (id == userId) {
+                return states[i];
+            }
+            if (id == FREE) {
+                return ABSENT;
+            }
+        }
+        return ABSENT;
+    }
+
+    private static void insert(long[] ids, int[] states, long userId, int state) {
+        int mask = ids.length - 1;
+        int i = slot(userId, mask);
+        while (ids[i] != FREE && ids[i] != userId) {
+            i = (i + 1) & mask;
+        }
+        states[i] = state;
+        ids[i] = userId;
+    }
+
+    private static int slot(long userId, int mask) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int users) {
+        return Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, users) * 2 - 1) * 2);
+    }
+
+    private static int pack(int securityVersion, boolean enabled) {
+        return securityVersion << 1 | (enabled ? 1 : 0);
+    }
+
+    private static int newer(int current, int state) {
+        return (current >>> 1) >= (state >>> 1) ? current : state;
+    }
+}
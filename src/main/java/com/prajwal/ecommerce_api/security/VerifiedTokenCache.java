@@ -0,0 +1,69 @@
+package com.prajwal.ecommerce_api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Claims of tokens whose signature has already been checked, keyed by the token's SHA-256 digest so the tokens
+ * themselves aren't kept. An entry never outlives its token's expiry (nor ttl-seconds), so an expired token is
+ * always verified again and rejected. Hit/miss counters are published as {@code cache.*} metrics under "jwt-claims".
+ * <p>
+ * Only tokens that verified are cached; a bad token costs a full parse every time.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<ByteBuffer, Claims> cache;
+
+    public VerifiedTokenCache(@Value("${app.jwt.verified-cache.max-size:100000}") long maxSize,
+                              @Value("${app.jwt.verified-cache.ttl-seconds:300}") long ttlSeconds,
+                              MeterRegistry meterRegistry) {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<ByteBuffer, Claims>creating((digest, claims) -> {
+                    long untilExpiry = TimeUnit.MILLISECONDS.toNanos(
+                            claims.getExpiration().getTime() - System.currentTimeMillis());
+                    return Duration.ofNanos(Math.max(0, Math.min(untilExpiry, ttlNanos)));
+                }))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt-claims");
+    }
+
+    /** Cached claims for the token, or else the verifier's result, cached if it is non-null and has an expiration. */
+    public Claims get(String token, Function<String, Claims> verifier) {
+        ByteBuffer digest = digest(token);
+        Claims claims = cache.getIfPresent(digest);
+        if (claims == null) {
+            // Not through cache.get: a miss is one HMAC check, cheaper than serializing concurrent misses on a lock
+            claims = verifier.apply(token);
+            if (claims != null && claims.getExpiration() != null) {
+                cache.put(digest, claims);
+            }
+        }
+        return claims;
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is required of every JVM", ex);
+        }
+    }
+}
@@ -4,14 +4,17 @@ import com.prajwal.ecommerce_api.dto.LoginRequestDTO;
 import com.prajwal.ecommerce_api.dto.LoginResponseDTO;
 import com.prajwal.ecommerce_api.dto.RegisterRequestDTO;
 import com.prajwal.ecommerce_api.dto.UserDTO;
+import com.prajwal.ecommerce_api.event.UserRegisteredEvent;
 import com.prajwal.ecommerce_api.exception.InvalidCredentialsException;
 import com.prajwal.ecommerce_api.exception.UserAlreadyExistsException;
+import com.prajwal.ecommerce_api.mapper.UserMapper;
 import com.prajwal.ecommerce_api.model.Role;
 import com.prajwal.ecommerce_api.model.User;
 import com.prajwal.ecommerce_api.repository.UserRepository;
 import com.prajwal.ecommerce_api.security.JwtTokenProvider;
 import com.prajwal.ecommerce_api.security.UserPrincipal;
-import org.modelmapper.ModelMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -20,22 +23,25 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@Timed(value = "service.method", histogram = true)
 @Service
 public class AuthService {
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AuthService(UserRepository userRepository, ModelMapper modelMapper,
+    public AuthService(UserRepository userRepository, UserMapper userMapper,
                        PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager,
-                       JwtTokenProvider jwtTokenProvider) {
+                       JwtTokenProvider jwtTokenProvider, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -44,15 +50,16 @@ public class AuthService {
             throw new UserAlreadyExistsException("Username already exists: " + registerRequest.getUsername());
         }
 
-        User user = modelMapper.map(registerRequest, User.class);
+        User user = userMapper.fromRegisterRequest(registerRequest);
         user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
         System.out.println("Encoded password = " + user.getPassword());
 
         user.setRole(Role.valueOf(registerRequest.getRole().toUpperCase()));
         user.setEnabled(true);
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId(), user.getUsername()));
 
-        return modelMapper.map(user, UserDTO.class);
+        return userMapper.toDto(user);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,135 @@
+package com.prajwal.ecommerce_api.service;
+
+import com.prajwal.ecommerce_api.cache.SingleFlight;
+import com.prajwal.ecommerce_api.dto.CursorPageDTO;
+import com.prajwal.ecommerce_api.dto.ProductBatchDTO;
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.dto.ProductFacetsDTO;
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Front door for {@link ProductServiceImpl} that lets identical concurrent list queries share one database execution.
+ * <p>
+ * It sits outside the transactional proxy, so callers that join an in-flight query never open a transaction or
+ * borrow a connection. Only the public catalog reads are coalesced: their results don't depend on who is asking.
+ * A caller that joins may receive a result whose query started just before a concurrent write committed; that is
+ * no staler than if it had arrived a few milliseconds earlier. Shared results must be treated as read-only.
+ */
+@Timed(value = "service.method", histogram = true)
+@Service
+@Primary
+public class CoalescingProductService implements ProductService {
+
+    private final ProductServiceImpl delegate;
+
+    private final SingleFlight<List<Object>, Page<ProductSummaryDTO>> allProducts;
+    private final SingleFlight<List<Object>, List<ProductSummaryDTO>> byCategory;
+    private final SingleFlight<List<Object>, Page<ProductSummaryDTO>> byPriceRange;
+    private final SingleFlight<List<Object>, Page<ProductSummaryDTO>> byPriceAndCategory;
+    private final SingleFlight<List<Object>, ProductFacetsDTO> facets;
+
+    public CoalescingProductService(ProductServiceImpl delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.allProducts = new SingleFlight<>("products.all", meterRegistry);
+        this.byCategory = new SingleFlight<>("products.by-category", meterRegistry);
+        this.byPriceRange = new SingleFlight<>("products.by-price", meterRegistry);
+        this.byPriceAndCategory = new SingleFlight<>("products.by-price-and-category", meterRegistry);
+        this.facets = new SingleFlight<>("products.facets", meterRegistry);
+    }
+
+    @Override
+    public Page<ProductSummaryDTO> getAllProducts(Pageable pageable) {
+        return allProducts.execute(key(pageable), () -> delegate.getAllProducts(pageable));
+    }
+
+    @Override
+    public List<ProductSummaryDTO> filterByCategory(String category) {
+        return byCategory.execute(key(category), () -> delegate.filterByCategory(category));
+    }
+
+    @Override
+    public Page<ProductSummaryDTO> filterByPriceRange(Pageable pageable, Double minPrice, Double maxPrice) {
+        return byPriceRange.execute(key(pageable, minPrice, maxPrice),
+                () -> delegate.filterByPriceRange(pageable, minPrice, maxPrice));
+    }
+
+    @Override
+    public Page<ProductSummaryDTO> filterByPriceAndCategory(Pageable pageable, Double minPrice, Double maxPrice, String category) {
+        return byPriceAndCategory.execute(key(pageable, minPrice, maxPrice, trim(category)),
+                () -> delegate.filterByPriceAndCategory(pageable, minPrice, maxPrice, category));
+    }
+
+    @Override
+    public ProductFacetsDTO getFacets(Pageable pageable, String category, Double minPrice, Double maxPrice,
+                                      Double bucketSize) {
+        return facets.execute(key(pageable, trim(category), minPrice, maxPrice, bucketSize),
+                () -> delegate.getFacets(pageable, category, minPrice, maxPrice, bucketSize));
+    }
+
+    // Served from the product cache or the in-memory search index, or cheap enough not to need coalescing
+
+    @Override
+    public ProductDTO getProductById(Long id) {
+        return delegate.getProductById(id);
+    }
+
+    @Override
+    public ProductBatchDTO getProductsByIds(List<Long> ids) {
+        return delegate.getProductsByIds(ids);
+    }
+
+    @Override
+    public Page<ProductSummaryDTO> searchByName(String name, Pageable pageable) {
+        return delegate.searchByName(name, pageable);
+    }
+
+    @Override
+    public CursorPageDTO<ProductDTO> scrollProducts(String cursor, int size, String sort) {
+        return delegate.scrollProducts(cursor, size, sort);
+    }
+
+    @Override
+    public CursorPageDTO<ProductDTO> scrollByPriceRange(String cursor, int size, Double minPrice, Double maxPrice, String sort) {
+        return delegate.scrollByPriceRange(cursor, size, minPrice, maxPrice, sort);
+    }
+
+    @Override
+    public void exportActiveCatalog(OutputStream outputStream) throws IOException {
+        delegate.exportActiveCatalog(outputStream);
+    }
+
+    @Override
+    public ProductDTO createProduct(ProductDTO productDTO) {
+        return delegate.createProduct(productDTO);
+    }
+
+    @Override
+    public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
+        return delegate.updateProduct(id, productDTO);
+    }
+
+    @Override
+    public void deleteProduct(Long id) {
+        delegate.deleteProduct(id);
+    }
+
+    // Pageable implementations compare page, size and sort by value, so equal requests produce equal keys
+    private static List<Object> key(Object... arguments) {
+        return Arrays.asList(arguments);
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+}
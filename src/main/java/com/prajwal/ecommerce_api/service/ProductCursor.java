@@ -0,0 +1,88 @@
+package com.prajwal.ecommerce_api.service;
+
+import com.prajwal.ecommerce_api.exception.InvalidFilterException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sort order and seek position for keyset scrolling over products.
+ * The position is handed to clients as an opaque URL-safe token of the form {@code property|direction|id|value}.
+ */
+final class ProductCursor {
+
+    private static final Set<String> SORTABLE = Set.of("id", "price", "name");
+    private static final String SEPARATOR = "|";
+
+    private final String property;
+    private final Sort.Direction direction;
+
+    private ProductCursor(String property, Sort.Direction direction) {
+        this.property = property;
+        this.direction = direction;
+    }
+
+    /** Parses a {@code property[,asc|desc]} sort expression, as used by the paged endpoints. */
+    static ProductCursor sortedBy(String sort, String defaultProperty) {
+        if (!StringUtils.hasText(sort)) {
+            return new ProductCursor(defaultProperty, Sort.Direction.ASC);
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE.contains(property)) {
+            throw new InvalidFilterException("Unsupported sort property: " + property);
+        }
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromOptionalString(parts[1].trim())
+                        .orElseThrow(() -> new InvalidFilterException("Invalid sort direction: " + parts[1]))
+                : Sort.Direction.ASC;
+        return new ProductCursor(property, direction);
+    }
+
+    Sort sort() {
+        Sort sort = Sort.by(direction, property);
+        return "id".equals(property) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    ScrollPosition decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return ScrollPosition.keyset();
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidFilterException("Invalid cursor");
+        }
+        String[] parts = decoded.split("\\|", 4);
+        if (parts.length != 4 || !parts[0].equals(property) || !parts[1].equals(direction.name())) {
+            throw new InvalidFilterException("Cursor does not match the requested sort order");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            switch (property) {
+                case "price" -> keys.put("price", Double.valueOf(parts[3]));
+                case "name" -> keys.put("name", parts[3]);
+                default -> { }
+            }
+            keys.put("id", Long.valueOf(parts[2]));
+        } catch (NumberFormatException ex) {
+            throw new InvalidFilterException("Invalid cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    String encode(ScrollPosition position) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        Object value = "id".equals(property) ? "" : keys.get(property);
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + keys.get("id") + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,263 @@
+package com.prajwal.ecommerce_api.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prajwal.ecommerce_api.dto.ImportErrorDTO;
+import com.prajwal.ecommerce_api.dto.ImportReportDTO;
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.event.ProductsImportedEvent;
+import com.prajwal.ecommerce_api.exception.InvalidFilterException;
+import com.prajwal.ecommerce_api.mapper.ProductMapper;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import from a JSON array or CSV stream.
+ * Rows are parsed and validated one at a time and inserted in chunked transactions using JDBC batching,
+ * so neither the request body nor the persistence context is ever held in memory as a whole. A row that can't be
+ * read or inserted is reported by number and the import carries on; only broken JSON syntax ends it early.
+ */
+@Timed(value = "service.method", histogram = true)
+@Service
+public class ProductImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "price", "stock", "category");
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public ProductImportService(ProductRepository productRepository, ProductMapper productMapper,
+                                Validator validator, ObjectMapper objectMapper, EntityManager entityManager,
+                                TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                                @Value("${app.import.chunk-size:1000}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImportReportDTO importJson(InputStream inputStream) throws IOException {
+        ImportRun run = new ImportRun();
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidFilterException("Expected a JSON array of products");
+            }
+            for (long row = 1; ; row++) {
+                JsonNode element;
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY) {
+                        break;
+                    }
+                    element = token == null ? null : parser.readValueAsTree();
+                } catch (JsonProcessingException ex) {
+                    // Broken syntax: the parser cannot resynchronise, so the rest of the input is unreadable
+                    run.reject(row, "Malformed JSON: " + ex.getOriginalMessage());
+                    break;
+                }
+                if (element == null) {
+                    run.reject(row, "Malformed JSON: unexpected end of input");
+                    break;
+                }
+                // Well-formed but not a product: report the row and carry on with the next element
+                if (!element.isObject()) {
+                    run.reject(row, "Expected a JSON object but found "
+                            + element.getNodeType().name().toLowerCase(Locale.ROOT));
+                    continue;
+                }
+                try {
+                    run.accept(row, objectMapper.treeToValue(element, ProductDTO.class));
+                } catch (JsonProcessingException ex) {
+                    run.reject(row, "Invalid product: " + ex.getOriginalMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImportReportDTO importCsv(Reader reader) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader lines = new BufferedReader(reader);
+        String header = lines.readLine();
+        if (header == null) {
+            throw new InvalidFilterException("CSV input is empty");
+        }
+        List<String> headerColumns = parseCsvLine(header).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        Map<String, Integer> positions = new HashMap<>();
+        for (String column : CSV_COLUMNS) {
+            int position = headerColumns.indexOf(column);
+            if (position < 0) {
+                throw new InvalidFilterException("CSV header is missing column: " + column);
+            }
+            positions.put(column, position);
+        }
+
+        long row = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            List<String> values = parseCsvLine(line);
+            if (values.size() < headerColumns.size()) {
+                run.reject(row, "Expected " + headerColumns.size() + " columns but found " + values.size());
+                continue;
+            }
+            try {
+                ProductDTO dto = new ProductDTO();
+                dto.setName(values.get(positions.get("name")));
+                dto.setDescription(values.get(positions.get("description")));
+                dto.setPrice(Double.valueOf(values.get(positions.get("price")).trim()));
+                dto.setStock(Integer.valueOf(values.get(positions.get("stock")).trim()));
+                dto.setCategory(values.get(positions.get("category")));
+                run.accept(row, dto);
+            } catch (NumberFormatException ex) {
+                run.reject(row, "Invalid number: " + ex.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    // RFC 4180 fields on a single line: comma separated, optionally quoted, "" escapes a quote
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /** Inserts one chunk in its own transaction; returns the failure message, or null on success. */
+    private String insertChunk(List<ProductDTO> rows) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Fresh entities on every attempt, so a retry never sees ids assigned by a rolled-back one
+                List<Product> saved = productRepository.saveAll(rows.stream().map(productMapper::toEntity).toList());
+                entityManager.flush();
+                // Search index and other listeners pick these up once the chunk commits
+                eventPublisher.publishEvent(new ProductsImportedEvent(saved.stream().map(productMapper::toDto).toList()));
+                entityManager.clear();
+            });
+            return null;
+        } catch (DataAccessException ex) {
+            return "Batch insert failed: " + ex.getMostSpecificCause().getMessage();
+        }
+    }
+
+    private class ImportRun {
+        private final ImportReportDTO report = new ImportReportDTO();
+        private final List<Long> chunkRows = new ArrayList<>(chunkSize);
+        private final List<ProductDTO> chunk = new ArrayList<>(chunkSize);
+
+        void accept(long row, ProductDTO dto) {
+            report.setTotalRows(report.getTotalRows() + 1);
+            Set<ConstraintViolation<ProductDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty() || dto.getPrice() == null || dto.getStock() == null) {
+                String message = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                fail(row, message.isEmpty() ? "price and stock are required" : message);
+                return;
+            }
+            chunkRows.add(row);
+            chunk.add(dto);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            report.setTotalRows(report.getTotalRows() + 1);
+            fail(row, message);
+        }
+
+        private void fail(long row, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                report.getErrors().add(new ImportErrorDTO(row, message));
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            if (insertChunk(chunk) == null) {
+                report.setImported(report.getImported() + chunk.size());
+            } else {
+                // One bad row fails the whole batch; retry the rows one by one so the report names the bad ones
+                for (int i = 0; i < chunk.size(); i++) {
+                    String failure = insertChunk(List.of(chunk.get(i)));
+                    if (failure == null) {
+                        report.setImported(report.getImported() + 1);
+                    } else {
+                        fail(chunkRows.get(i), failure);
+                    }
+                }
+            }
+            chunkRows.clear();
+            chunk.clear();
+        }
+
+        ImportReportDTO finish() {
+            flush();
+            return report;
+        }
+    }
+}
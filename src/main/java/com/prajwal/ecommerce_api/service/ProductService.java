@@ -1,19 +1,30 @@
 package com.prajwal.ecommerce_api.service;
 
+import com.prajwal.ecommerce_api.dto.CursorPageDTO;
+import com.prajwal.ecommerce_api.dto.ProductBatchDTO;
 import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.dto.ProductFacetsDTO;
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ProductService {
-    Page<ProductDTO> getAllProducts(Pageable pageable);
+    Page<ProductSummaryDTO> getAllProducts(Pageable pageable);
     ProductDTO getProductById(Long id);
+    ProductBatchDTO getProductsByIds(List<Long> ids);
     ProductDTO createProduct(ProductDTO productDTO);
     ProductDTO updateProduct(Long id, ProductDTO productDTO);
     void deleteProduct(Long id);
-    List<ProductDTO> searchByName(String name);
-    List<ProductDTO> filterByCategory(String category);
-    Page<ProductDTO> filterByPriceRange(Pageable pageable, Double minPrice, Double maxPrice);
-    Page<ProductDTO> filterByPriceAndCategory(Pageable pageable, Double minPrice, Double maxPrice, String category);
+    Page<ProductSummaryDTO> searchByName(String name, Pageable pageable);
+    List<ProductSummaryDTO> filterByCategory(String category);
+    Page<ProductSummaryDTO> filterByPriceRange(Pageable pageable, Double minPrice, Double maxPrice);
+    Page<ProductSummaryDTO> filterByPriceAndCategory(Pageable pageable, Double minPrice, Double maxPrice, String category);
+    ProductFacetsDTO getFacets(Pageable pageable, String category, Double minPrice, Double maxPrice, Double bucketSize);
+    CursorPageDTO<ProductDTO> scrollProducts(String cursor, int size, String sort);
+    CursorPageDTO<ProductDTO> scrollByPriceRange(String cursor, int size, Double minPrice, Double maxPrice, String sort);
+    void exportActiveCatalog(OutputStream outputStream) throws IOException;
 }
\ No newline at end of file
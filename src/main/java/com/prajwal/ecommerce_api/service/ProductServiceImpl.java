@@ -1,60 +1,152 @@
 package com.prajwal.ecommerce_api.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.prajwal.ecommerce_api.cache.ProductCache;
+import com.prajwal.ecommerce_api.dto.CategoryCountDTO;
+import com.prajwal.ecommerce_api.dto.CursorPageDTO;
+import com.prajwal.ecommerce_api.dto.PriceBucketDTO;
+import com.prajwal.ecommerce_api.dto.ProductBatchDTO;
 import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.dto.ProductFacetsDTO;
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import com.prajwal.ecommerce_api.event.ProductChangedEvent;
 import com.prajwal.ecommerce_api.exception.InvalidFilterException;
 import com.prajwal.ecommerce_api.exception.ProductNotFoundException;
+import com.prajwal.ecommerce_api.mapper.ProductMapper;
 import com.prajwal.ecommerce_api.model.Product;
 import com.prajwal.ecommerce_api.repository.ProductRepository;
-import org.modelmapper.ModelMapper;
+import com.prajwal.ecommerce_api.search.CatalogSnapshot;
+import com.prajwal.ecommerce_api.search.ProductSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Timed(value = "service.method", histogram = true)
 @Service
 public class ProductServiceImpl implements ProductService {
-    private final ModelMapper modelMapper;
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+    private static final int MIN_BUCKET_SIZE = 1;
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final ProductMapper productMapper;
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    // Null unless app.catalog.snapshot.enabled
+    private final CatalogSnapshot catalogSnapshot;
+    private final StockReservationService stockReservationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    // For cache misses only, so a cache hit doesn't borrow a connection for an empty transaction
+    private final TransactionTemplate readOnlyTransaction;
 
-    public ProductServiceImpl(ModelMapper modelMapper, ProductRepository productRepository) {
-        this.modelMapper = modelMapper;
+    public ProductServiceImpl(ProductMapper productMapper, ProductRepository productRepository,
+                              ProductCache productCache, ProductSearchIndex productSearchIndex,
+                              ObjectProvider<CatalogSnapshot> catalogSnapshot, StockReservationService stockReservationService,
+                              ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+                              ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.productMapper = productMapper;
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogSnapshot = catalogSnapshot.getIfAvailable();
+        this.stockReservationService = stockReservationService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductDTO> getAllProducts(Pageable pageable) {
-        return productRepository.findByActiveTrue(pageable)
-                .map(product -> modelMapper.map(product, ProductDTO.class));
+    public Page<ProductSummaryDTO> getAllProducts(Pageable pageable) {
+        return productRepository.findActiveSummaries(pageable);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ProductDTO getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .filter(Product::isActive)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
-        return modelMapper.map(product, ProductDTO.class);
+        return productCache.get(id, key -> readOnlyTransaction.execute(status -> {
+            Product product = productRepository.findById(key)
+                    .filter(Product::isActive)
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + key));
+            return productMapper.toDto(product);
+        }));
+    }
+
+    @Override
+    public ProductBatchDTO getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidFilterException("At least one id must be specified");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new InvalidFilterException("At most " + MAX_BATCH_SIZE + " ids can be requested at once");
+        }
+        Map<Long, ProductDTO> found = getCachedProducts(requested);
+
+        List<ProductDTO> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDTO product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new ProductBatchDTO(products, missingIds);
     }
 
     @Override
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public ProductDTO createProduct(ProductDTO productDTO) {
-        Product product = modelMapper.map(productDTO, Product.class);
+        Product product = productMapper.toEntity(productDTO);
         product = productRepository.save(product);
-        return modelMapper.map(product, ProductDTO.class);
+        ProductDTO created = productMapper.toDto(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(created.getId(), created));
+        return created;
     }
 
     @Override
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findByIdForUpdate(id)
                 .filter(Product::isActive)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
 
@@ -68,64 +160,194 @@ public class ProductServiceImpl implements ProductService {
             product.setPrice(productDTO.getPrice());
         }
         if (productDTO.getStock() != null) {
+            stockReservationService.onStockOverwritten(id, product.getStock(), productDTO.getStock());
             product.setStock(productDTO.getStock());
         }
         if (productDTO.getCategory() != null) {
             product.setCategory(productDTO.getCategory());
         }
-        product = productRepository.save(product);
-        return modelMapper.map(product, ProductDTO.class);
+        // Flushed so @PreUpdate has set updatedAt, which the cached copy's ETag is derived from
+        product = productRepository.saveAndFlush(product);
+        ProductDTO updated = productMapper.toDto(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, updated));
+        return updated;
     }
 
     @Override
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public void deleteProduct(Long id) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findByIdForUpdate(id)
                 .filter(Product::isActive)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
         product.setActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, null));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<ProductDTO> searchByName(String name) {
-        List<Product> products = productRepository.findByNameContainingIgnoreCaseAndActiveTrue(name);
-        return products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
+    public Page<ProductSummaryDTO> searchByName(String name, Pageable pageable) {
+        if (!StringUtils.hasText(name)) {
+            throw new InvalidFilterException("Search query cannot be blank");
+        }
+        if (productSearchIndex.isReady()) {
+            // The index ranks ids; only the page's products are loaded. One deleted since ranking is left out
+            Page<Long> ranked = productSearchIndex.search(name, pageable);
+            Map<Long, ProductDTO> found = getCachedProducts(ranked.getContent());
+            List<ProductSummaryDTO> content = ranked.getContent().stream()
+                    .map(found::get)
+                    .filter(Objects::nonNull)
+                    .map(productMapper::toSummary)
+                    .toList();
+            return new PageImpl<>(content, pageable, ranked.getTotalElements());
+        }
+        // Index is still being built right after startup
+        return readOnlyTransaction.execute(status ->
+                productRepository.findSummariesByNameContaining(name.trim(), pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductDTO> filterByCategory(String category) {
-        List<Product> products = productRepository.findByCategoryAndActiveTrue(category);
-        return products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
+    public List<ProductSummaryDTO> filterByCategory(String category) {
+        return productRepository.findSummariesByCategory(category);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductDTO> filterByPriceRange(Pageable pageable, Double minPrice, Double maxPrice) {
+    public Page<ProductSummaryDTO> filterByPriceRange(Pageable pageable, Double minPrice, Double maxPrice) {
         validatePriceRange(minPrice, maxPrice);
-        return productRepository.findByPriceBetweenAndActiveTrue(minPrice, maxPrice, pageable)
-                .map(product -> modelMapper.map(product, ProductDTO.class));
+        if (catalogSnapshot != null && catalogSnapshot.canServe(pageable)) {
+            return catalogSnapshot.findByPriceRange(minPrice, maxPrice, null, pageable);
+        }
+        return productRepository.findSummariesByPriceBetween(minPrice, maxPrice, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductDTO> filterByPriceAndCategory(Pageable pageable, Double minPrice, Double maxPrice, String category) {
+    public Page<ProductSummaryDTO> filterByPriceAndCategory(Pageable pageable, Double minPrice, Double maxPrice, String category) {
         validatePriceRange(minPrice, maxPrice);
         if (!StringUtils.hasText(category)) {
             throw new InvalidFilterException("Category cannot be blank");
         }
-        return productRepository.findByPriceBetweenAndCategoryAndActiveTrue(minPrice, maxPrice, category.trim(), pageable)
-                .map(product -> modelMapper.map(product, ProductDTO.class));
+        if (catalogSnapshot != null && catalogSnapshot.canServe(pageable)) {
+            return catalogSnapshot.findByPriceRange(minPrice, maxPrice, category.trim(), pageable);
+        }
+        return productRepository.findSummariesByPriceBetweenAndCategory(minPrice, maxPrice, category.trim(), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductFacetsDTO getFacets(Pageable pageable, String category, Double minPrice, Double maxPrice,
+                                      Double bucketSize) {
+        if ((minPrice != null && minPrice < 0) || (maxPrice != null && maxPrice < 0)) {
+            throw new InvalidFilterException("Prices cannot be negative");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new InvalidFilterException("Minimum price cannot exceed maximum price");
+        }
+        if (bucketSize == null || bucketSize < MIN_BUCKET_SIZE) {
+            throw new InvalidFilterException("Bucket size must be at least " + MIN_BUCKET_SIZE);
+        }
+        String selectedCategory = StringUtils.hasText(category) ? category.trim() : null;
+
+        // Category counts, histogram and page total all come from one grouped scan
+        Map<String, Long> categoryCounts = new TreeMap<>();
+        Map<Long, Long> bucketCounts = new TreeMap<>();
+        long total = 0;
+        for (Object[] row : productRepository.countByCategoryAndPriceBucket(minPrice, maxPrice, bucketSize)) {
+            String rowCategory = (String) row[0];
+            long bucket = ((Number) row[1]).longValue();
+            long count = ((Number) row[2]).longValue();
+            categoryCounts.merge(rowCategory, count, Long::sum);
+            if (selectedCategory == null || selectedCategory.equals(rowCategory)) {
+                bucketCounts.merge(bucket, count, Long::sum);
+                total += count;
+            }
+        }
+
+        List<ProductSummaryDTO> content = total > pageable.getOffset()
+                ? productRepository.findFacetPage(selectedCategory, minPrice, maxPrice, pageable)
+                : List.of();
+        List<CategoryCountDTO> categories = categoryCounts.entrySet().stream()
+                .filter(entry -> Objects.nonNull(entry.getKey()))
+                .map(entry -> new CategoryCountDTO(entry.getKey(), entry.getValue()))
+                .toList();
+        List<PriceBucketDTO> histogram = bucketCounts.entrySet().stream()
+                .map(entry -> new PriceBucketDTO(entry.getKey() * bucketSize, (entry.getKey() + 1) * bucketSize,
+                        entry.getValue()))
+                .toList();
+        return new ProductFacetsDTO(new PageImpl<>(content, pageable, total), categories, histogram);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> scrollProducts(String cursor, int size, String sort) {
+        ProductCursor productCursor = ProductCursor.sortedBy(sort, "id");
+        Window<Product> window = productRepository.findByActiveTrue(
+                productCursor.decode(cursor), productCursor.sort(), scrollLimit(size));
+        return toCursorPage(window, productCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> scrollByPriceRange(String cursor, int size, Double minPrice, Double maxPrice, String sort) {
+        validatePriceRange(minPrice, maxPrice);
+        ProductCursor productCursor = ProductCursor.sortedBy(sort, "price");
+        Window<Product> window = productRepository.findByPriceBetweenAndActiveTrue(
+                minPrice, maxPrice, productCursor.decode(cursor), productCursor.sort(), scrollLimit(size));
+        return toCursorPage(window, productCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportActiveCatalog(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ProductDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<Product> products = productRepository.streamByActiveTrueOrderByIdAsc();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<Product> iterator = products.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, productMapper.toDto(iterator.next()));
+                generator.writeRaw('\n');
+                if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                    // Detach what we've streamed so the persistence context doesn't grow with the catalog
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+    }
+
+    // Cache hits are served directly; all misses are loaded with a single IN query
+    private Map<Long, ProductDTO> getCachedProducts(Collection<Long> ids) {
+        return productCache.getAll(ids, missing -> readOnlyTransaction.execute(status ->
+                productRepository.findAllById(missing).stream()
+                        .filter(Product::isActive)
+                        .map(productMapper::toDto)
+                        .collect(Collectors.toMap(ProductDTO::getId, Function.identity()))));
+    }
+
+    private Limit scrollLimit(int size) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new InvalidFilterException("Size must be between 1 and " + MAX_SCROLL_SIZE);
+        }
+        return Limit.of(size);
+    }
+
+    private CursorPageDTO<ProductDTO> toCursorPage(Window<Product> window, ProductCursor productCursor) {
+        List<ProductDTO> content = window.map(productMapper::toDto).getContent();
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? productCursor.encode(window.positionAt(window.size() - 1))
+                : null;
+        return new CursorPageDTO<>(content, content.size(), nextCursor != null, nextCursor);
     }
 
-    private void validatePriceRange(Double minPrice, Double maxPrice) {
+    // Shared with ReactiveProductService
+    static void validatePriceRange(Double minPrice, Double maxPrice) {
         if (minPrice == null || maxPrice == null) {
             throw new InvalidFilterException("Minimum and maximum price must be specified");
         }
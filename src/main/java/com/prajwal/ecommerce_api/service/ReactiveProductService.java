@@ -0,0 +1,109 @@
+package com.prajwal.ecommerce_api.service;
+
+import com.prajwal.ecommerce_api.cache.ProductCache;
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import com.prajwal.ecommerce_api.exception.InvalidFilterException;
+import com.prajwal.ecommerce_api.exception.ProductNotFoundException;
+import com.prajwal.ecommerce_api.mapper.ProductMapper;
+import com.prajwal.ecommerce_api.repository.ReactiveProductRepository;
+import com.prajwal.ecommerce_api.search.ProductSearchIndex;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Read side of {@link ProductService} without blocking: the same validation, product cache and search index, with
+ * misses and filters read through {@link ReactiveProductRepository}. Nothing here waits on a thread; results arrive
+ * on the database driver's threads.
+ */
+@Service
+public class ReactiveProductService {
+
+    private final ProductMapper productMapper;
+    private final ReactiveProductRepository reactiveProductRepository;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+
+    public ReactiveProductService(ProductMapper productMapper, ReactiveProductRepository reactiveProductRepository,
+                                  ProductCache productCache, ProductSearchIndex productSearchIndex) {
+        this.productMapper = productMapper;
+        this.reactiveProductRepository = reactiveProductRepository;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+    }
+
+    public Mono<Page<ProductSummaryDTO>> getAllProducts(Pageable pageable) {
+        return reactiveProductRepository.findActiveSummaries(pageable);
+    }
+
+    public Flux<ProductDTO> streamActiveCatalog() {
+        return reactiveProductRepository.streamActive().map(productMapper::toDto);
+    }
+
+    public Mono<ProductDTO> getProductById(Long id) {
+        return Mono.fromFuture(() -> productCache.getAsync(id, key -> reactiveProductRepository.findActiveById(key)
+                        .map(productMapper::toDto)
+                        .toFuture()))
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found with id: " + id)));
+    }
+
+    public Mono<Page<ProductSummaryDTO>> searchByName(String name, Pageable pageable) {
+        if (!StringUtils.hasText(name)) {
+            return Mono.error(new InvalidFilterException("Search query cannot be blank"));
+        }
+        if (!productSearchIndex.isReady()) {
+            // Index is still being built right after startup
+            return reactiveProductRepository.findSummariesByNameContaining(name.trim(), pageable);
+        }
+        // Ranking is in memory; only the page's products are loaded. One deleted since ranking is left out
+        Page<Long> ranked = productSearchIndex.search(name, pageable);
+        return Mono.fromFuture(() -> productCache.getAllAsync(ranked.getContent(), missing ->
+                        reactiveProductRepository.findActiveByIds(missing)
+                                .map(productMapper::toDto)
+                                .collectMap(ProductDTO::getId, Function.identity())
+                                .toFuture()))
+                .map(found -> toPage(ranked, found, pageable));
+    }
+
+    public Flux<ProductSummaryDTO> filterByCategory(String category) {
+        return reactiveProductRepository.findSummariesByCategory(category);
+    }
+
+    public Mono<Page<ProductSummaryDTO>> filterByPriceRange(Pageable pageable, Double minPrice, Double maxPrice) {
+        return Mono.defer(() -> {
+            ProductServiceImpl.validatePriceRange(minPrice, maxPrice);
+            return reactiveProductRepository.findSummariesByPriceBetween(minPrice, maxPrice, pageable);
+        });
+    }
+
+    public Mono<Page<ProductSummaryDTO>> filterByPriceAndCategory(Pageable pageable, Double minPrice, Double maxPrice,
+                                                                  String category) {
+        return Mono.defer(() -> {
+            ProductServiceImpl.validatePriceRange(minPrice, maxPrice);
+            if (!StringUtils.hasText(category)) {
+                throw new InvalidFilterException("Category cannot be blank");
+            }
+            return reactiveProductRepository.findSummariesByPriceBetweenAndCategory(
+                    minPrice, maxPrice, category.trim(), pageable);
+        });
+    }
+
+    private Page<ProductSummaryDTO> toPage(Page<Long> ranked, Map<Long, ProductDTO> found, Pageable pageable) {
+        List<ProductSummaryDTO> content = ranked.getContent().stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .map(productMapper::toSummary)
+                .toList();
+        return new PageImpl<>(content, pageable, ranked.getTotalElements());
+    }
+}
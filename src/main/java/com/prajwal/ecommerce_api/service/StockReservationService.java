@@ -0,0 +1,356 @@
+package com.prajwal.ecommerce_api.service;
+
+import com.prajwal.ecommerce_api.dto.StockReservationDTO;
+import com.prajwal.ecommerce_api.event.ProductChangedEvent;
+import com.prajwal.ecommerce_api.exception.InsufficientStockException;
+import com.prajwal.ecommerce_api.exception.ProductNotFoundException;
+import com.prajwal.ecommerce_api.exception.ReservationNotFoundException;
+import com.prajwal.ecommerce_api.mapper.ProductMapper;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reserve/commit/release stock without touching the products row on the hot path.
+ * <p>
+ * Each SKU's available units live in a {@link StripedStockCounter} seeded from {@code Product.stock} on first use.
+ * Committed reservations accumulate as pending sales and are written back to the products table in the background
+ * under a row lock, and once more on shutdown. Invariant per SKU: available + reserved + pending == stock in
+ * the database.
+ * <p>
+ * Each outstanding reservation pins its SKU's entry. Entries with no pins, no pending sales and no reservations since
+ * the previous idle sweep are dropped, and seeded again from the database on next use.
+ * <p>
+ * An admin stock overwrite takes a reduction out of the available units before it commits, so stock can't be set below
+ * what is reserved or sold but not yet written back. A SKU isn't seeded while an overwrite of any product is in flight
+ * or if one completed during its read, since that read may predate the overwrite its adjustment was meant for.
+ */
+@Timed(value = "service.method", histogram = true)
+@Service
+public class StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+    private static final long OVERWRITE_RETRY_NANOS = 1_000_000;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration reservationTtl;
+
+    private final Map<Long, SkuStock> skus = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    // Products with a stock overwrite between its row lock and its commit or rollback, and a count of completed ones
+    private final Map<Long, Integer> overwritesInFlight = new ConcurrentHashMap<>();
+    private final AtomicLong overwritesCompleted = new AtomicLong();
+
+    public StockReservationService(ProductRepository productRepository, ProductMapper productMapper,
+                                   TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                                   @Value("${app.stock.reservation-ttl-seconds:900}") long reservationTtlSeconds) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.reservationTtl = Duration.ofSeconds(reservationTtlSeconds);
+    }
+
+    public StockReservationDTO reserve(Long productId, int quantity, String username) {
+        SkuStock sku = pinnedSku(productId);
+        if (!sku.active) {
+            sku.unpin();
+            throw new ProductNotFoundException("Product not found with id: " + productId);
+        }
+        if (!sku.available.tryAcquire(quantity)) {
+            sku.unpin();
+            throw new InsufficientStockException("Insufficient stock for product with id: " + productId);
+        }
+        // Ids are only honoured for their owner, so ThreadLocalRandom avoids the shared SecureRandom behind randomUUID()
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String id = new UUID(random.nextLong(), random.nextLong()).toString();
+        Reservation reservation = new Reservation(id, productId, sku, quantity, username,
+                Instant.now().plus(reservationTtl));
+        reservations.put(reservation.id(), reservation);
+        return new StockReservationDTO(reservation.id(), productId, quantity, reservation.expiresAt());
+    }
+
+    public void commit(String reservationId, String username) {
+        Reservation reservation = take(reservationId, username);
+        // Counted before the pin is dropped, so a SKU without pins has no sales left to add
+        reservation.sku().pendingSales.addAndGet(reservation.quantity());
+        reservation.sku().unpin();
+    }
+
+    public void release(String reservationId, String username) {
+        Reservation reservation = take(reservationId, username);
+        returnUnits(reservation);
+    }
+
+    public long getAvailableStock(Long productId) {
+        return sku(productId).available.available();
+    }
+
+    /**
+     * Applies an admin stock overwrite as a delta, keeping the invariant above. Must be called under the product's
+     * row lock with the stock value the update replaced. A reduction is taken out of the available units right away
+     * and handed back if the update rolls back; an increase is added once it commits.
+     *
+     * @throws InsufficientStockException if the reduction exceeds the units not reserved or awaiting write-back
+     */
+    public void onStockOverwritten(Long productId, int previousStock, int newStock) {
+        long delta = (long) newStock - previousStock;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            SkuStock sku = skus.get(productId);
+            if (sku != null && delta < 0 && !sku.available.tryAcquire(-delta)) {
+                throw stockBelowReserved(productId, newStock);
+            }
+            if (sku != null && delta > 0) {
+                sku.available.release(delta);
+            }
+            return;
+        }
+
+        // Registered before looking for the entry, so none can be seeded from a read that misses this overwrite
+        overwritesInFlight.merge(productId, 1, Integer::sum);
+        SkuStock sku = skus.get(productId);
+        boolean taken = sku != null && delta < 0;
+        if (taken && !sku.available.tryAcquire(-delta)) {
+            overwriteCompleted(productId);
+            throw stockBelowReserved(productId, newStock);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status != STATUS_COMMITTED && taken) {
+                        sku.available.release(-delta);
+                    } else if (status == STATUS_COMMITTED && delta > 0) {
+                        skus.computeIfPresent(productId, (id, current) -> {
+                            current.available.release(delta);
+                            return current;
+                        });
+                    }
+                } finally {
+                    overwriteCompleted(productId);
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Deactivated products can't be reserved any more; outstanding reservations may still commit or release,
+        // so the entry stays around for write-back
+        SkuStock sku = skus.get(event.getProductId());
+        if (sku != null && event.isRemoved()) {
+            sku.active = false;
+        }
+    }
+
+    // Runs before the DataSource is closed, so sales committed since the last scheduled flush aren't lost on shutdown
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${app.stock.flush-interval-millis:500}")
+    public void flushPendingSales() {
+        skus.forEach((productId, sku) -> {
+            long sold = sku.pendingSales.getAndSet(0);
+            if (sold == 0) {
+                return;
+            }
+            try {
+                // Through the locked entity rather than a bulk update, which would evict the whole second-level cache
+                // region and not just this product
+                transactionTemplate.executeWithoutResult(status -> productRepository.findByIdForUpdate(productId)
+                        .ifPresent(product -> {
+                            product.setStock(product.getStock() - Math.toIntExact(sold));
+                            product = productRepository.saveAndFlush(product);
+                            if (product.isActive()) {
+                                eventPublisher.publishEvent(
+                                        new ProductChangedEvent(productId, productMapper.toDto(product)));
+                            }
+                        }));
+            } catch (RuntimeException ex) {
+                // Keep the sales pending and retry on the next run
+                sku.pendingSales.addAndGet(sold);
+                log.warn("Failed to write back {} sold units for product {}", sold, productId, ex);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.expiry-sweep-millis:30000}")
+    public void releaseExpiredReservations() {
+        Instant now = Instant.now();
+        reservations.values().forEach(reservation -> {
+            if (!reservation.expiresAt().isAfter(now)) {
+                expire(reservation);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.idle-sweep-millis:30000}")
+    public void evictIdleSkus() {
+        skus.forEach((productId, sku) -> {
+            if (sku.touched) {
+                sku.touched = false;
+            } else if (sku.pendingSales.get() == 0 && sku.retire()) {
+                // No pins, so no commit is still to add its sales: if there are none now, there will be none
+                if (sku.pendingSales.get() == 0) {
+                    skus.remove(productId, sku);
+                } else {
+                    sku.pins.set(0);
+                }
+            }
+        });
+    }
+
+    long getPendingSales(Long productId) {
+        SkuStock sku = skus.get(productId);
+        return sku == null ? 0 : sku.pendingSales.get();
+    }
+
+    long getSkuCount() {
+        return skus.size();
+    }
+
+    // Whoever removes the reservation from the map owns it: committing, releasing or expiring it exactly once
+    private Reservation take(String reservationId, String username) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || !reservation.username().equals(username)) {
+            throw new ReservationNotFoundException("Reservation not found: " + reservationId);
+        }
+        if (!reservation.expiresAt().isAfter(Instant.now())) {
+            expire(reservation);
+            throw new ReservationNotFoundException("Reservation has expired: " + reservationId);
+        }
+        if (!reservations.remove(reservationId, reservation)) {
+            throw new ReservationNotFoundException("Reservation not found: " + reservationId);
+        }
+        return reservation;
+    }
+
+    private void expire(Reservation reservation) {
+        if (reservations.remove(reservation.id(), reservation)) {
+            returnUnits(reservation);
+        }
+    }
+
+    private void returnUnits(Reservation reservation) {
+        reservation.sku().available.release(reservation.quantity());
+        reservation.sku().unpin();
+    }
+
+    // An entry being evicted is briefly retired and then gone from the map (or back in use), so the retry is short
+    private SkuStock pinnedSku(Long productId) {
+        while (true) {
+            SkuStock sku = sku(productId);
+            if (sku.pin()) {
+                return sku;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // Loads outside the map's compute so the JDBC call doesn't block other SKUs' map bin or pin a virtual thread;
+    // racing loaders read the same row and the first one in wins. A read that an overwrite may have raced is retried
+    private SkuStock sku(Long productId) {
+        while (true) {
+            SkuStock sku = skus.get(productId);
+            if (sku != null) {
+                return sku;
+            }
+            long overwritesBefore = overwritesCompleted.get();
+            SkuStock loaded = loadSku(productId);
+            SkuStock installed = skus.compute(productId, (id, existing) -> {
+                if (existing != null) {
+                    return existing;
+                }
+                boolean raced = overwritesInFlight.containsKey(id) || overwritesCompleted.get() != overwritesBefore;
+                return raced ? null : loaded;
+            });
+            if (installed != null) {
+                return installed;
+            }
+            // Wait for the overwrite to commit or roll back rather than re-read the row in a tight loop
+            LockSupport.parkNanos(OVERWRITE_RETRY_NANOS);
+        }
+    }
+
+    private void overwriteCompleted(Long productId) {
+        overwritesCompleted.incrementAndGet();
+        overwritesInFlight.computeIfPresent(productId, (id, count) -> count == 1 ? null : count - 1);
+    }
+
+    private static InsufficientStockException stockBelowReserved(Long productId, int newStock) {
+        return new InsufficientStockException("Cannot set stock of product with id " + productId + " to " + newStock
+                + ": more units are reserved or sold but not yet written back");
+    }
+
+    private SkuStock loadSku(Long productId) {
+        Product product = productRepository.findById(productId)
+                .filter(Product::isActive)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + productId));
+        return new SkuStock(new StripedStockCounter(product.getStock()));
+    }
+
+    private static final class SkuStock {
+        private static final int RETIRED = -1;
+
+        private final StripedStockCounter available;
+        private final AtomicLong pendingSales = new AtomicLong();
+        // Outstanding reservations, or RETIRED once the entry is being evicted
+        private final AtomicInteger pins = new AtomicInteger();
+        private volatile boolean active = true;
+        // Set by reservations, cleared by the idle sweep; only written when it changes, so hot SKUs don't contend on it
+        private volatile boolean touched = true;
+
+        private SkuStock(StripedStockCounter available) {
+            this.available = available;
+        }
+
+        private boolean pin() {
+            while (true) {
+                int current = pins.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+                if (pins.compareAndSet(current, current + 1)) {
+                    if (!touched) {
+                        touched = true;
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void unpin() {
+            pins.decrementAndGet();
+        }
+
+        private boolean retire() {
+            return pins.compareAndSet(0, RETIRED);
+        }
+    }
+
+    private record Reservation(String id, Long productId, SkuStock sku, int quantity, String username,
+                               Instant expiresAt) {
+    }
+}
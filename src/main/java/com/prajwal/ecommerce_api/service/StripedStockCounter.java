@@ -0,0 +1,114 @@
+package com.prajwal.ecommerce_api.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Available units of one SKU, sharded across cache-line padded stripes so concurrent reservations
+ * mostly CAS on different memory. A stripe is never decremented below zero, so the sum can never be
+ * oversold; a request larger than its home stripe gathers units from the other stripes and returns them
+ * if the total falls short (which near sell-out can briefly reject a request that would fit).
+ */
+final class StripedStockCounter {
+
+    // 8 longs = 64 bytes between stripes to avoid false sharing
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    // Units below zero when seeded from a negative stock level; repaid before units become available again
+    private final AtomicLong debt = new AtomicLong();
+
+    StripedStockCounter(long initial) {
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(64, Runtime.getRuntime().availableProcessors())) * 2 - 1);
+        this.mask = stripes - 1;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        long units = Math.max(0, initial);
+        long share = units / stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, i == 0 ? units - share * (stripes - 1) : share);
+        }
+        debt.set(Math.max(0, -initial));
+    }
+
+    boolean tryAcquire(long quantity) {
+        if (debt.get() > 0) {
+            settleDebt();
+        }
+        int home = homeStripe();
+        long remaining = quantity;
+        for (int i = 0; i <= mask && remaining > 0; i++) {
+            remaining -= takeUpTo((home + i) & mask, remaining);
+        }
+        if (remaining > 0) {
+            release(quantity - remaining);
+            return false;
+        }
+        return true;
+    }
+
+    /** Returns units to the caller's home stripe, after paying down any outstanding debt. */
+    void release(long quantity) {
+        long remaining = payDebt(quantity);
+        if (remaining > 0) {
+            cells.getAndAdd(homeStripe() * PADDING, remaining);
+        }
+    }
+
+    long available() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum - debt.get();
+    }
+
+    // Pays the debt out of the stripes, from units released since the counter was seeded
+    private void settleDebt() {
+        for (int i = 0; i <= mask; i++) {
+            long owed = debt.get();
+            if (owed <= 0) {
+                return;
+            }
+            long leftover = payDebt(takeUpTo(i, owed));
+            if (leftover > 0) {
+                cells.getAndAdd(i * PADDING, leftover);
+            }
+        }
+    }
+
+    /** Pays as much of the debt as possible from {@code quantity}; returns what is left over. */
+    private long payDebt(long quantity) {
+        long remaining = quantity;
+        while (remaining > 0) {
+            long owed = debt.get();
+            if (owed <= 0) {
+                break;
+            }
+            long paid = Math.min(owed, remaining);
+            if (debt.compareAndSet(owed, owed - paid)) {
+                remaining -= paid;
+            }
+        }
+        return remaining;
+    }
+
+    private long takeUpTo(int stripe, long wanted) {
+        int index = stripe * PADDING;
+        while (true) {
+            long current = cells.get(index);
+            if (current <= 0) {
+                return 0;
+            }
+            long taken = Math.min(current, wanted);
+            if (cells.compareAndSet(index, current, current - taken)) {
+                return taken;
+            }
+        }
+    }
+
+    private int homeStripe() {
+        long id = Thread.currentThread().threadId();
+        return (int) (id ^ (id >>> 16)) * 0x9E3779B9 >>> 16 & mask;
+    }
+}
@@ -1,11 +1,15 @@
 package com.prajwal.ecommerce_api.service;
 
 import com.prajwal.ecommerce_api.dto.*;
+import com.prajwal.ecommerce_api.event.UserProfileChangedEvent;
+import com.prajwal.ecommerce_api.event.UserSecurityChangedEvent;
 import com.prajwal.ecommerce_api.exception.UserNotFoundException;
+import com.prajwal.ecommerce_api.mapper.UserMapper;
 import com.prajwal.ecommerce_api.model.Role;
 import com.prajwal.ecommerce_api.model.User;
 import com.prajwal.ecommerce_api.repository.UserRepository;
-import org.modelmapper.ModelMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,22 +19,26 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Timed(value = "service.method", histogram = true)
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserServiceImpl(UserRepository userRepository, ModelMapper modelMapper) {
+    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper,
+                           ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll().stream()
-                .map(user -> modelMapper.map(user, UserDTO.class))
+                .map(userMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -39,7 +47,7 @@ public class UserServiceImpl implements UserService {
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + id));
-        return modelMapper.map(user, UserDTO.class);
+        return userMapper.toDto(user);
     }
 
     @Override
@@ -48,6 +56,7 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + id));
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(id, user.getSecurityVersion() + 1, false, true));
     }
 
     @Override
@@ -55,7 +64,7 @@ public class UserServiceImpl implements UserService {
     public UserProfileDTO getUserProfile(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
-        return modelMapper.map(user, UserProfileDTO.class);
+        return userMapper.toProfileDto(user);
     }
 
     @Override
@@ -78,7 +87,8 @@ public class UserServiceImpl implements UserService {
 
         user.setEmail(userUpdateDTO.getEmail());
         userRepository.save(user);
-        return modelMapper.map(user, UserProfileDTO.class);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user.getId()));
+        return userMapper.toProfileDto(user);
     }
 
     @Override
@@ -86,7 +96,7 @@ public class UserServiceImpl implements UserService {
     @PreAuthorize("hasRole('ADMIN')")
     public Page<UserProfileDTO> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable)
-                .map(user -> modelMapper.map(user, UserProfileDTO.class));
+                .map(userMapper::toProfileDto);
     }
 
     @Override
@@ -96,8 +106,9 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
         user.setRole(role);
+        revokeTokens(user);
         userRepository.save(user);
-        return modelMapper.map(user, UserProfileDTO.class);
+        return userMapper.toProfileDto(user);
     }
 
     @Override
@@ -107,7 +118,15 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
         user.setEnabled(enabled);
+        revokeTokens(user);
         userRepository.save(user);
-        return modelMapper.map(user, UserProfileDTO.class);
+        return userMapper.toProfileDto(user);
+    }
+
+    // Tokens carry the version they were issued at; once it moves on they stop being accepted
+    private void revokeTokens(User user) {
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(
+                user.getId(), user.getSecurityVersion(), user.isEnabled(), false));
     }
 }
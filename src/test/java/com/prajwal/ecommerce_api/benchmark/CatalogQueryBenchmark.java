@@ -0,0 +1,91 @@
+package com.prajwal.ecommerce_api.benchmark;
+
+import com.prajwal.ecommerce_api.EcommerceApiApplication;
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import com.prajwal.ecommerce_api.search.CatalogSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price range and price + category queries served by the JPA path (H2 in MySQL mode, projection plus count query)
+ * versus the in-memory {@link CatalogSnapshot}, over the same seeded catalog. H2 runs in-process, so the JPA numbers
+ * exclude the network round trips a real MySQL adds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogQueryBenchmark {
+
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Toys", "Garden", "Sports", "Kitchen", "Music", "Games"};
+
+    @Param({"100000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private CatalogSnapshot catalogSnapshot;
+    private final Pageable firstPage = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EcommerceApiApplication.class)
+                .properties("server.port=0", "app.catalog.snapshot.enabled=true", "logging.level.root=WARN")
+                .run();
+        productRepository = context.getBean(ProductRepository.class);
+        catalogSnapshot = context.getBean(CatalogSnapshot.class);
+
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        Random random = new Random(42);
+        for (int start = 0; start < products; start += 1000) {
+            List<Product> chunk = new ArrayList<>(1000);
+            for (int i = start; i < Math.min(products, start + 1000); i++) {
+                chunk.add(new Product(null, "Product " + i, "Description of product " + i,
+                        random.nextInt(100_000) / 100.0, random.nextInt(500),
+                        CATEGORIES[random.nextInt(CATEGORIES.length)], true, null, null));
+            }
+            transactionTemplate.executeWithoutResult(status -> productRepository.saveAll(chunk));
+        }
+        // Seeded without events, so rebuild rather than rely on incremental maintenance
+        catalogSnapshot.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<ProductSummaryDTO> priceRangeJpa() {
+        return productRepository.findSummariesByPriceBetween(100.0, 300.0, firstPage);
+    }
+
+    @Benchmark
+    public Page<ProductSummaryDTO> priceRangeSnapshot() {
+        return catalogSnapshot.findByPriceRange(100.0, 300.0, null, firstPage);
+    }
+
+    @Benchmark
+    public Page<ProductSummaryDTO> priceAndCategoryJpa() {
+        return productRepository.findSummariesByPriceBetweenAndCategory(100.0, 300.0, "Books", firstPage);
+    }
+
+    @Benchmark
+    public Page<ProductSummaryDTO> priceAndCategorySnapshot() {
+        return catalogSnapshot.findByPriceRange(100.0, 300.0, "Books", firstPage);
+    }
+}
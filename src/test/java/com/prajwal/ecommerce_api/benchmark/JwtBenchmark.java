@@ -0,0 +1,134 @@
+package com.prajwal.ecommerce_api.benchmark;
+
+import com.prajwal.ecommerce_api.model.Role;
+import com.prajwal.ecommerce_api.model.User;
+import com.prajwal.ecommerce_api.security.JwtAuthenticationFilter;
+import com.prajwal.ecommerce_api.security.JwtTokenProvider;
+import com.prajwal.ecommerce_api.security.UserPrincipal;
+import com.prajwal.ecommerce_api.security.UserSecurityVersions;
+import com.prajwal.ecommerce_api.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification in {@link JwtTokenProvider}, and the whole {@link JwtAuthenticationFilter} pass an
+ * authenticated request makes. The filter gets an in-memory UserDetailsService, so it measures token handling and
+ * building the authentication, not the user lookup; {@code statelessAuthenticationFilter} is the claims-only mode
+ * ({@code app.jwt.stateless-principal.enabled}), which makes no lookup at all.
+ * <p>
+ * The provider's verification benchmarks reuse one token, so they measure the {@link VerifiedTokenCache} hit a
+ * client's repeat requests get. {@code parseOnce} is a cache miss (one parse and HS512 check with the prebuilt
+ * parser) and {@code parseTwiceWithFreshKeys} is what the filter did per request before: decode the secret, build a
+ * key and parser, and parse, once to validate and again for the username.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "ZmFrZS10ZXN0LXNlY3JldC1mb3ItdGhlLWVjb21tZXJjZS1hcGktdGVzdHMtb25seS1kby1ub3QtdXNlLWluLXByb2R1Y3Rpb24tMDEyMzQ1Njc4OQ==";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private JwtParser parser;
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter statelessFilter;
+    private UserPrincipal principal;
+    private String token;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        long expirationMillis = TimeUnit.HOURS.toMillis(1);
+        jwtTokenProvider = new JwtTokenProvider(SECRET, expirationMillis,
+                new VerifiedTokenCache(10_000, 300, new SimpleMeterRegistry()));
+        parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build();
+        LocalDateTime now = LocalDateTime.now();
+        principal = new UserPrincipal(new User(7L, "Ada", "Lovelace", "ada@example.com", "ada", "$2a$10$hash",
+                Role.USER, true, 0, now, now));
+        token = jwtTokenProvider.generateToken(principal);
+
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, username -> principal,
+                new StaticListableBeanFactory().getBeanProvider(UserSecurityVersions.class));
+        UserSecurityVersions userSecurityVersions = new UserSecurityVersions(null);
+        userSecurityVersions.record(principal.getId(), principal.getSecurityVersion(), true);
+        statelessFilter = new JwtAuthenticationFilter(jwtTokenProvider, username -> {
+            throw new IllegalStateException("Stateless filter loaded " + username);
+        }, new StaticListableBeanFactory(Map.of("userSecurityVersions", userSecurityVersions))
+                .getBeanProvider(UserSecurityVersions.class));
+        request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(principal);
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return jwtTokenProvider.verify(token);
+    }
+
+    @Benchmark
+    public Claims parseOnce() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public String parseTwiceWithFreshKeys() {
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtTokenProvider.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public Authentication authenticationFilter() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public Authentication statelessAuthenticationFilter() throws Exception {
+        statelessFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
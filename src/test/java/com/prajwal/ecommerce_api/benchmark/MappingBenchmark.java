@@ -0,0 +1,88 @@
+package com.prajwal.ecommerce_api.benchmark;
+
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.dto.UserDTO;
+import com.prajwal.ecommerce_api.dto.UserProfileDTO;
+import com.prajwal.ecommerce_api.mapper.ProductMapper;
+import com.prajwal.ecommerce_api.mapper.ProductMapperImpl;
+import com.prajwal.ecommerce_api.mapper.UserMapper;
+import com.prajwal.ecommerce_api.mapper.UserMapperImpl;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.model.Role;
+import com.prajwal.ecommerce_api.model.User;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-object mapping cost of the reflective ModelMapper the services used to call versus the
+ * MapStruct-generated mappers. Run with {@code -prof gc} (the benchmark profile does) to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ProductMapper productMapper = new ProductMapperImpl();
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    private Product product;
+    private ProductDTO productDTO;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        product = new Product(42L, "Mechanical Keyboard", "Hot-swappable 75% keyboard with PBT keycaps",
+                129.99, 250, "Electronics", true, now, now);
+        productDTO = new ProductDTO(null, "Mechanical Keyboard", "Hot-swappable 75% keyboard with PBT keycaps",
+                129.99, 250, "Electronics", true, null);
+        user = new User(7L, "Ada", "Lovelace", "ada@example.com", "ada", "$2a$10$hash", Role.USER, true, 0, now, now);
+    }
+
+    @Benchmark
+    public ProductDTO productToDtoModelMapper() {
+        return modelMapper.map(product, ProductDTO.class);
+    }
+
+    @Benchmark
+    public ProductDTO productToDtoMapStruct() {
+        return productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public Product dtoToProductModelMapper() {
+        return modelMapper.map(productDTO, Product.class);
+    }
+
+    @Benchmark
+    public Product dtoToProductMapStruct() {
+        return productMapper.toEntity(productDTO);
+    }
+
+    @Benchmark
+    public UserDTO userToDtoModelMapper() {
+        return modelMapper.map(user, UserDTO.class);
+    }
+
+    @Benchmark
+    public UserDTO userToDtoMapStruct() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public UserProfileDTO userToProfileModelMapper() {
+        return modelMapper.map(user, UserProfileDTO.class);
+    }
+
+    @Benchmark
+    public UserProfileDTO userToProfileMapStruct() {
+        return userMapper.toProfileDto(user);
+    }
+}
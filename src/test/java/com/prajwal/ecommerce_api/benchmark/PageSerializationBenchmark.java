@@ -0,0 +1,63 @@
+package com.prajwal.ecommerce_api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a product page as the list endpoints write it: full ProductDTOs versus the
+ * ProductSummaryDTO projection they now return. The ObjectMapper is built the way Boot builds its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Page<ProductDTO> productPage;
+    private Page<ProductSummaryDTO> summaryPage;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<ProductDTO> products = new ArrayList<>(pageSize);
+        List<ProductSummaryDTO> summaries = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            double price = random.nextInt(100_000) / 100.0;
+            int stock = random.nextInt(500);
+            products.add(new ProductDTO((long) i, "Product " + i, "Description of product " + i,
+                    price, stock, "Category " + (i % 8), true, LocalDateTime.now()));
+            summaries.add(new ProductSummaryDTO((long) i, "Product " + i, price, stock, "Category " + (i % 8)));
+        }
+        productPage = new PageImpl<>(products, PageRequest.of(0, pageSize), 10_000);
+        summaryPage = new PageImpl<>(summaries, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] productPage() throws Exception {
+        return objectMapper.writeValueAsBytes(productPage);
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws Exception {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+}
@@ -0,0 +1,118 @@
+package com.prajwal.ecommerce_api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prajwal.ecommerce_api.EcommerceApiApplication;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The same price-range filter through the MVC endpoint (JPA over JDBC) and its /api/reactive counterpart (R2DBC),
+ * from 400 concurrent clients, with Tomcat on its default platform thread pool. Every statement is delayed by
+ * {@code latencyMillis}: a sleeping thread on the JDBC side ({@link SimulatedJdbcLatency}), a timer on the R2DBC side
+ * ({@link SimulatedR2dbcLatency}). Both connection pools are sized above the client count, and each client asks for
+ * a random range, so nothing is coalesced or cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+@Warmup(iterations = 8, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ReactiveReadBenchmark {
+
+    @Param({"/api/products", "/api/reactive/products"})
+    public String basePath;
+
+    @Param({"20", "1000"})
+    public long latencyMillis;
+
+    @Param({"10000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String authorization;
+    // Seeding runs without the simulated latency; thousands of delayed inserts would dominate the trial
+    private volatile boolean seeded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(EcommerceApiApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        // Nearly every request is over the slow-request threshold here; logging them all costs CPU
+                        "logging.level.com.prajwal.ecommerce_api.metrics=ERROR",
+                        "app.rate-limit.enabled=false",
+                        "spring.datasource.hikari.maximum-pool-size=500",
+                        "app.datasource.reactive.max-pool-size=500")
+                .initializers(applicationContext -> {
+                    LongSupplier latency = () -> seeded ? latencyMillis : 0;
+                    applicationContext.getBeanFactory().addBeanPostProcessor(new SimulatedJdbcLatency(latency));
+                    applicationContext.getBeanFactory().addBeanPostProcessor(new SimulatedR2dbcLatency(latency));
+                })
+                .run();
+        seed();
+        seeded = true;
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String server = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = server + basePath;
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(server + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                                Map.of("identifier", "admin", "password", "admin"))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        authorization = "Bearer " + objectMapper.readTree(login.body()).get("token").asText();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int filterByPrice() throws Exception {
+        int min = ThreadLocalRandom.current().nextInt(980);
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/filter/price?minPrice=" + min + "&maxPrice=" + (min + 20)))
+                .header("Authorization", authorization)
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Unexpected status " + status);
+        }
+        return status;
+    }
+
+    private void seed() {
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        for (int start = 0; start < products; start += 1000) {
+            List<Product> chunk = new ArrayList<>(1000);
+            for (int i = start; i < Math.min(products, start + 1000); i++) {
+                chunk.add(new Product(null, "Product " + i, "Description of product " + i,
+                        (i % 1000) + 0.99, 100, "Category " + (i % 8), true, null, null));
+            }
+            transactionTemplate.executeWithoutResult(status -> productRepository.saveAll(chunk));
+        }
+    }
+}
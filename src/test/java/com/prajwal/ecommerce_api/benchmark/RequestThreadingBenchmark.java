@@ -0,0 +1,118 @@
+package com.prajwal.ecommerce_api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prajwal.ecommerce_api.EcommerceApiApplication;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/products/{id} from 400 concurrent clients, with Tomcat on its default platform thread pool versus
+ * virtual threads. Every statement is delayed by {@code jdbcLatencyMillis} ({@link SimulatedJdbcLatency}), and the
+ * product cache is kept small so most requests reach the database. The connection pool is sized above the client
+ * count so request threads, not connections, are what runs out.
+ * <p>
+ * SampleTime reports the latency percentiles (p0.99 included), Throughput the requests per millisecond. Append
+ * {@code -jvmArgsAppend -Djdk.tracePinnedThreads=short} to log any pinned virtual thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+@Warmup(iterations = 8, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"100"})
+    public long jdbcLatencyMillis;
+
+    @Param({"10000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String authorization;
+    private long[] productIds;
+    // Seeding runs without the simulated latency; thousands of delayed inserts would dominate the trial
+    private volatile boolean seeded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(EcommerceApiApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        // Nearly every request is over the slow-request threshold here; logging them all costs CPU
+                        "logging.level.com.prajwal.ecommerce_api.metrics=ERROR",
+                        "app.rate-limit.enabled=false",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.hikari.maximum-pool-size=500",
+                        "app.cache.products.max-size=100")
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new SimulatedJdbcLatency(() -> seeded ? jdbcLatencyMillis : 0)))
+                .run();
+        seed();
+        seeded = true;
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                                Map.of("identifier", "admin", "password", "admin"))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        authorization = "Bearer " + objectMapper.readTree(login.body()).get("token").asText();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getProduct() throws Exception {
+        long id = productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/products/" + id))
+                .header("Authorization", authorization)
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Unexpected status " + status);
+        }
+        return status;
+    }
+
+    private void seed() {
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        List<Product> saved = new ArrayList<>(products);
+        for (int start = 0; start < products; start += 1000) {
+            List<Product> chunk = new ArrayList<>(1000);
+            for (int i = start; i < Math.min(products, start + 1000); i++) {
+                chunk.add(new Product(null, "Product " + i, "Description of product " + i,
+                        (i % 1000) + 0.99, 100, "Category " + (i % 8), true, null, null));
+            }
+            saved.addAll(transactionTemplate.execute(status -> productRepository.saveAll(chunk)));
+        }
+        productIds = saved.stream().mapToLong(Product::getId).toArray();
+    }
+}
@@ -0,0 +1,65 @@
+package com.prajwal.ecommerce_api.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.LongSupplier;
+
+/**
+ * Wraps the application DataSource so that every executed statement first waits out a fixed latency, standing in
+ * for the round trip to MySQL that in-process H2 doesn't have. Register it with
+ * {@code getBeanFactory().addBeanPostProcessor(...)} from an initializer. The latency is read per statement, so a
+ * benchmark can seed its data at zero and switch it on afterwards.
+ */
+record SimulatedJdbcLatency(LongSupplier latencyMillis) implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+            return bean;
+        }
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return proxy(Connection.class, connection, (target, method, args) -> {
+                    Object result = method.invoke(target, args);
+                    return result instanceof PreparedStatement statement
+                            ? proxy(PreparedStatement.class, statement, this::delayExecution)
+                            : result;
+                });
+            }
+
+            private Object delayExecution(Statement target, Method method, Object[] args) throws Throwable {
+                if (method.getName().startsWith("execute")) {
+                    // Sleeping parks a virtual thread; it would pin only if called while holding a monitor
+                    Thread.sleep(latencyMillis.getAsLong());
+                }
+                return method.invoke(target, args);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            try {
+                return handler.handle(target, method, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        });
+    }
+
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,74 @@
+package com.prajwal.ecommerce_api.benchmark;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Statement;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * The R2DBC counterpart of {@link SimulatedJdbcLatency}: every executed statement first waits out a fixed latency, on
+ * a timer rather than a sleeping thread, the way a reply from MySQL would arrive. Wraps the reactive
+ * {@link DatabaseClient}; register it with {@code getBeanFactory().addBeanPostProcessor(...)} from an initializer.
+ */
+record SimulatedR2dbcLatency(LongSupplier latencyMillis) implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DatabaseClient databaseClient)) {
+            return bean;
+        }
+        ConnectionFactory connectionFactory = databaseClient.getConnectionFactory();
+        return DatabaseClient.create(new ConnectionFactory() {
+            @Override
+            public Publisher<? extends Connection> create() {
+                return Mono.from(connectionFactory.create()).map(connection -> proxy(Connection.class, connection,
+                        (target, method, args) -> {
+                            Object result = method.invoke(target, args);
+                            return result instanceof Statement statement
+                                    ? proxy(Statement.class, statement, this::delayExecution)
+                                    : result;
+                        }));
+            }
+
+            @Override
+            public ConnectionFactoryMetadata getMetadata() {
+                return connectionFactory.getMetadata();
+            }
+
+            private Object delayExecution(Statement target, Method method, Object[] args) throws Throwable {
+                if (!method.getName().equals("execute")) {
+                    return method.invoke(target, args);
+                }
+                return Mono.delay(Duration.ofMillis(latencyMillis.getAsLong())).thenMany(Flux.defer(() -> target.execute()));
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            try {
+                Object result = handler.handle(target, method, args);
+                // Keep the fluent bind(...) chain on the proxy
+                return result == target ? p : result;
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        });
+    }
+
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+}
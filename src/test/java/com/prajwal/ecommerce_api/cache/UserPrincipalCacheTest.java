@@ -0,0 +1,91 @@
+package com.prajwal.ecommerce_api.cache;
+
+import com.prajwal.ecommerce_api.event.UserProfileChangedEvent;
+import com.prajwal.ecommerce_api.event.UserRegisteredEvent;
+import com.prajwal.ecommerce_api.model.Role;
+import com.prajwal.ecommerce_api.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UserPrincipalCacheTest {
+
+    private UserPrincipalCache cache;
+    private User ada;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserPrincipalCache(100, 300, new SimpleMeterRegistry());
+        LocalDateTime now = LocalDateTime.now();
+        ada = new User(7L, "Ada", "Lovelace", "ada@example.com", "ada", "$2a$10$hash", Role.USER, true, 0, now, now);
+        loads = new AtomicInteger();
+    }
+
+    private User load(String identifier) {
+        loads.incrementAndGet();
+        return ada;
+    }
+
+    @Test
+    void aLoginByEmailAlsoCachesTheUsername() {
+        assertEquals("ada", cache.get("ada@example.com", this::load).getUsername());
+        assertEquals("ada", cache.get("ADA", this::load).getUsername());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void aLoadByUsernameIsNotCachedUnderTheEmail() {
+        cache.get("ada", this::load);
+        cache.get("ada@example.com", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void aUsernameEqualToAnotherUsersEmailNeverResolvesToThatUser() {
+        LocalDateTime now = LocalDateTime.now();
+        User mallory = new User(8L, "Mal", "Lory", "mal@example.com", "ada@example.com", "$2a$10$hash", Role.USER,
+                true, 0, now, now);
+        cache.get("ada@example.com", this::load);
+
+        // Mallory registers ada's email as a username; from now on the database resolves that string to her
+        cache.onUserRegistered(new UserRegisteredEvent(8L, "ADA@example.com"));
+
+        assertEquals(8L, cache.get("ada@example.com", identifier -> mallory).getId());
+        assertEquals(8L, cache.get("ada@example.com", this::load).getId());
+        assertEquals(7L, cache.get("ada", this::load).getId());
+    }
+
+    @Test
+    void changesDropEverySpellingOfTheUser() {
+        cache.get("ada@example.com", this::load);
+        cache.onUserProfileChanged(new UserProfileChangedEvent(7L));
+
+        cache.get("Ada", this::load);
+        cache.get("ADA@example.com", this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void doesNotKeepALoadThatOverlappedAnInvalidation() {
+        cache.get("ada", identifier -> {
+            cache.evict(7L);
+            return ada;
+        });
+
+        cache.get("ada", this::load);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void unknownIdentifiersAreNotCached() {
+        assertNull(cache.get("nobody", identifier -> null));
+        assertNull(cache.get("nobody", identifier -> null));
+    }
+}
@@ -0,0 +1,129 @@
+package com.prajwal.ecommerce_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica; each holds a single row naming itself.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private String replicaUrl;
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool(createDatabase("primary"));
+        replicaUrl = createDatabase("replica");
+        replica = pool(replicaUrl);
+        // Health checks are driven by the test
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica),
+                Duration.ofHours(1), Duration.ofMillis(300));
+        routingDataSource.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        routingDataSource.destroy();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToTheReplica() {
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+        assertEquals("primary", readWrite.execute(status -> whoAmI()));
+        assertEquals("primary", whoAmI());
+    }
+
+    @Test
+    void readsOwnWritesFromThePrimaryWithinTheWindow() throws InterruptedException {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update whoami set touched = touched + 1"));
+
+        assertEquals("primary", readOnly.execute(status -> whoAmI()));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob", null, List.of()));
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+
+        Thread.sleep(400);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinToThePrimary() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("update whoami set touched = touched + 1");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void failsOverToThePrimaryWhileTheReplicaIsDown() {
+        new JdbcTemplate(replica).execute("shutdown");
+        routingDataSource.checkReplicas();
+        assertEquals(0, routingDataSource.getHealthyReplicaCount());
+        assertEquals("primary", readOnly.execute(status -> whoAmI()));
+
+        createDatabase(replicaUrl, "replica");
+        routingDataSource.checkReplicas();
+        assertEquals(1, routingDataSource.getHealthyReplicaCount());
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("select name from whoami", String.class);
+    }
+
+    private static String createDatabase(String name) {
+        return createDatabase("jdbc:h2:mem:" + name + "-" + System.nanoTime(), name);
+    }
+
+    private static String createDatabase(String url, String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(url + ";DB_CLOSE_DELAY=-1", true));
+        jdbc.execute("create table whoami (name varchar(20), touched int)");
+        jdbc.update("insert into whoami values (?, 0)", name);
+        return url;
+    }
+
+    // IFEXISTS keeps the pool from silently creating an empty database after a shutdown
+    private static HikariDataSource pool(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url + ";IFEXISTS=TRUE");
+        dataSource.setConnectionTimeout(250);
+        return dataSource;
+    }
+}
@@ -0,0 +1,114 @@
+package com.prajwal.ecommerce_api.controller;
+
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The reactive endpoints against the test database over R2DBC, with the products written through JPA.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    private String category;
+    private final List<ProductDTO> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Unique per test, since the context and its database are shared with other tests
+        category = "Reactive " + UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            products.add(productService.createProduct(new ProductDTO(null, category + " lamp " + i,
+                    "A reading lamp", 1000.0 + i, 5, category, true, null)));
+        }
+    }
+
+    @Test
+    void getsAProductById() throws Exception {
+        ProductDTO product = products.get(1);
+        perform("/api/reactive/products/" + product.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(product.getId()))
+                .andExpect(jsonPath("$.name").value(product.getName()))
+                .andExpect(jsonPath("$.description").value("A reading lamp"));
+    }
+
+    @Test
+    void anUnknownIdIsNotFound() throws Exception {
+        perform("/api/reactive/products/" + Long.MAX_VALUE)
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void filtersByPriceAndCategoryWithTotal() throws Exception {
+        perform("/api/reactive/products/filter/price-and-category?minPrice=1000&maxPrice=1001&category=" + category
+                + "&size=1&sort=price,desc")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(products.get(1).getId()))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void rejectsAnInvalidPriceRange() throws Exception {
+        perform("/api/reactive/products/filter/price?minPrice=10&maxPrice=1")
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void filtersByCategory() throws Exception {
+        perform("/api/reactive/products/filter/category?category=" + category)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void searchesThroughTheIndex() throws Exception {
+        // Other tests' lamps match "lamp 2" as well; only this one also has the id's first segment
+        String term = category.substring(category.indexOf(' ') + 1, category.indexOf('-'));
+        perform("/api/reactive/products/search?name=lamp 2 " + term)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(products.get(2).getId()));
+    }
+
+    @Test
+    void streamsTheCatalogAsNdjson() throws Exception {
+        String body = perform("/api/reactive/products/stream")
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long ours = body.lines().filter(line -> line.contains(category)).count();
+        assertEquals(3, ours);
+    }
+
+    private ResultActions perform(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+}
@@ -0,0 +1,319 @@
+package com.prajwal.ecommerce_api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prajwal.ecommerce_api.EcommerceApiApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the application on the test classpath (in-memory H2 in MySQL mode), seeds a synthetic catalog and user base,
+ * then drives a weighted mix of requests from closed-loop client threads and reports throughput and latency
+ * percentiles per operation. Nothing outside the JVM is needed.
+ * <p>
+ * Run with {@code mvn -Ploadtest -DskipTests test}; every {@code loadtest.*} setting below can be overridden on the
+ * command line, e.g. {@code -Dloadtest.products=2000000 -Dloadtest.clients=128}. Each operation's full percentile
+ * distribution is also written as an HdrHistogram .hgrm file under {@code loadtest.output}.
+ * <p>
+ * Clients wait for each response before sending the next request, so when the server stalls, fewer requests are
+ * sent and the tail percentiles read lower than an open-loop load would show.
+ */
+public class LoadTest {
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final int TOKEN_POOL_SIZE = 32;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    enum Operation {
+        PRODUCT_BY_ID, PRODUCT_LIST, SEARCH, FILTER_PRICE, FILTER_PRICE_AND_CATEGORY, LOGIN, ADMIN_UPDATE;
+
+        String key() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    private final int products = Integer.getInteger("loadtest.products", 1_000_000);
+    private final int users = Integer.getInteger("loadtest.users", 100_000);
+    private final int clients = Integer.getInteger("loadtest.clients", 64);
+    private final long warmupSeconds = Long.getLong("loadtest.warmup-seconds", 30);
+    private final long durationSeconds = Long.getLong("loadtest.duration-seconds", 60);
+    private final long seed = Long.getLong("loadtest.seed", 42);
+    private final Path output = Path.of(System.getProperty("loadtest.output", "target/loadtest"));
+    private final Map<Operation, Integer> mix = parseMix(System.getProperty("loadtest.mix",
+            "product-by-id=40,product-list=15,search=15,filter-price=10,filter-price-and-category=10,login=5,admin-update=5"));
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private ObjectMapper objectMapper;
+    private String baseUrl;
+    private SyntheticDataGenerator.Range productIds;
+    private List<String> userTokens;
+    private String adminToken;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run();
+    }
+
+    private void run() throws Exception {
+        ConfigurableApplicationContext context = start();
+        try {
+            userTokens = new ArrayList<>(TOKEN_POOL_SIZE);
+            Random random = new Random(seed);
+            for (int i = 0; i < TOKEN_POOL_SIZE; i++) {
+                userTokens.add(login(SyntheticDataGenerator.username(random.nextInt(users)), PASSWORD));
+            }
+            adminToken = login(context.getEnvironment().getProperty("app.admin.username"),
+                    context.getEnvironment().getProperty("app.admin.password"));
+
+            System.out.printf("Running %d clients: %d s warmup, %d s measured, mix %s%n",
+                    clients, warmupSeconds, durationSeconds, mix);
+            report(drive());
+        } finally {
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        long start = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EcommerceApiApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN", "app.metrics.slow-request-millis=5000",
+                        // Every client is on localhost and shares a few users, so per-client limits would throttle
+                        // the run itself
+                        "app.rate-limit.enabled=false")
+                // A runner, so the rows are in place before the search index and catalog snapshot build on
+                // ApplicationReady
+                .initializers(applicationContext -> applicationContext.getBeanFactory().registerSingleton(
+                        "loadTestSeeder", (ApplicationRunner) args -> seed(applicationContext)))
+                .run();
+        System.out.printf("Seeded %d products and %d users, application ready in %d s%n",
+                products, users, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+        objectMapper = context.getBean(ObjectMapper.class);
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        return context;
+    }
+
+    private void seed(ConfigurableApplicationContext context) throws SQLException {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(context.getBean(DataSource.class), seed);
+        productIds = generator.seedProducts(products);
+        generator.seedUsers(users, context.getBean(PasswordEncoder.class).encode(PASSWORD));
+        generator.analyze();
+    }
+
+    private List<ClientStats> drive() throws InterruptedException {
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<ClientStats> stats = new ArrayList<>(clients);
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            ClientStats clientStats = new ClientStats();
+            stats.add(clientStats);
+            Random random = new Random(seed + i);
+            String token = userTokens.get(i % userTokens.size());
+            threads.add(Thread.ofPlatform().name("loadtest-client-" + i).start(() -> {
+                long now;
+                while ((now = System.nanoTime()) < stopAt) {
+                    Operation operation = pick(random);
+                    int status = send(request(operation, random, token));
+                    long end = System.nanoTime();
+                    if (now >= measureFrom) {
+                        clientStats.record(operation, status, TimeUnit.NANOSECONDS.toMicros(end - now));
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return stats;
+    }
+
+    private HttpRequest request(Operation operation, Random random, String token) {
+        String products = baseUrl + "/api/products";
+        return switch (operation) {
+            case PRODUCT_BY_ID -> get(products + "/" + randomProductId(random), token);
+            case PRODUCT_LIST -> get(products + "?page=" + random.nextInt(100) + "&size=20", token);
+            case SEARCH -> get(products + "/search?name=" + pick(random, SyntheticDataGenerator.NOUNS)
+                    + "&size=20", token);
+            case FILTER_PRICE -> {
+                int min = random.nextInt(990);
+                yield get(products + "/filter/price?minPrice=" + min + "&maxPrice=" + (min + 10) + "&size=20", token);
+            }
+            case FILTER_PRICE_AND_CATEGORY -> {
+                int min = random.nextInt(900);
+                yield get(products + "/filter/price-and-category?minPrice=" + min + "&maxPrice=" + (min + 100)
+                        + "&category=" + pick(random, SyntheticDataGenerator.CATEGORIES) + "&size=20", token);
+            }
+            case LOGIN -> post(baseUrl + "/api/auth/login", Map.of(
+                    "identifier", SyntheticDataGenerator.username(random.nextInt(users)), "password", PASSWORD));
+            case ADMIN_UPDATE -> {
+                long id = randomProductId(random);
+                Map<String, Object> product = new LinkedHashMap<>();
+                product.put("name", "Updated product " + id);
+                product.put("description", "Updated by the load test");
+                product.put("price", random.nextInt(100_000) / 100.0);
+                product.put("stock", random.nextInt(500));
+                product.put("category", pick(random, SyntheticDataGenerator.CATEGORIES));
+                product.put("active", true);
+                yield HttpRequest.newBuilder(URI.create(products + "/" + id))
+                        .header("Authorization", "Bearer " + adminToken)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(json(product)))
+                        .build();
+            }
+        };
+    }
+
+    private long randomProductId(Random random) {
+        return productIds.idAt(random.nextInt(productIds.count()));
+    }
+
+    private HttpRequest get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token).build();
+    }
+
+    private HttpRequest post(String url, Object body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+                .build();
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException ex) {
+            return -1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private String login(String identifier, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(post(baseUrl + "/api/auth/login",
+                Map.of("identifier", identifier, "password", password)), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + identifier + " failed with " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Operation pick(Random random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private void report(List<ClientStats> stats) throws IOException {
+        Files.createDirectories(output);
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long allErrors = 0;
+        System.out.printf("%n%-26s %10s %8s %10s %9s %9s %10s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : mix.keySet()) {
+            Histogram histogram = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+            long errors = 0;
+            Map<Integer, Long> errorStatuses = new LinkedHashMap<>();
+            for (ClientStats clientStats : stats) {
+                histogram.add(clientStats.latencies.get(operation));
+                errors += clientStats.errors.getOrDefault(operation, 0L);
+                clientStats.errorStatuses.getOrDefault(operation, Map.of())
+                        .forEach((status, count) -> errorStatuses.merge(status, count, Long::sum));
+            }
+            all.add(histogram);
+            allErrors += errors;
+            printRow(operation.key(), histogram, errors);
+            if (!errorStatuses.isEmpty()) {
+                System.out.printf("%-26s error statuses %s%n", "", errorStatuses);
+            }
+            try (PrintStream out = new PrintStream(output.resolve(operation.key() + ".hgrm").toFile())) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        printRow("all", all, allErrors);
+        System.out.printf("%nPercentile distributions (ms) written to %s%n", output.toAbsolutePath());
+    }
+
+    private void printRow(String name, Histogram histogram, long errors) {
+        System.out.printf("%-26s %10d %8d %10.1f %9.2f %9.2f %10.2f %9.2f%n",
+                name, histogram.getTotalCount() + errors, errors,
+                (histogram.getTotalCount() + errors) / (double) durationSeconds,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0);
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase().replace('-', '_')), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no operation with a positive weight: " + spec);
+        }
+        return mix;
+    }
+
+    // Per client thread, merged when the run ends, so recording never contends
+    private static class ClientStats {
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+        private final Map<Operation, Map<Integer, Long>> errorStatuses = new EnumMap<>(Operation.class);
+
+        ClientStats() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new Histogram(HIGHEST_TRACKABLE_MICROS, 3));
+            }
+        }
+
+        void record(Operation operation, int status, long micros) {
+            if (status < 200 || status >= 300) {
+                errors.merge(operation, 1L, Long::sum);
+                errorStatuses.computeIfAbsent(operation, o -> new LinkedHashMap<>()).merge(status, 1L, Long::sum);
+                return;
+            }
+            latencies.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.prajwal.ecommerce_api.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Seeds products and users with plain JDBC batches, bypassing JPA, so millions of rows load in seconds. Rows are
+ * generated from a fixed seed, so every run sees the same catalog. Ids are taken above whatever the Hibernate
+ * sequences have handed out and the sequences are moved past them, so the application's own inserts don't collide.
+ * Every seeded user has the same password, hashed once.
+ */
+class SyntheticDataGenerator {
+
+    static final String[] CATEGORIES = {"Electronics", "Books", "Toys", "Garden", "Sports", "Kitchen", "Music", "Games"};
+    static final String[] ADJECTIVES = {"Compact", "Wireless", "Vintage", "Ergonomic", "Portable", "Premium", "Classic",
+            "Smart", "Rugged", "Deluxe", "Minimal", "Heavy-duty", "Foldable", "Organic", "Handmade", "Modular"};
+    static final String[] MATERIALS = {"Steel", "Bamboo", "Leather", "Carbon", "Ceramic", "Walnut", "Aluminium",
+            "Cotton", "Glass", "Titanium", "Wool", "Copper"};
+    static final String[] NOUNS = {"Keyboard", "Lamp", "Backpack", "Kettle", "Headphones", "Chair", "Notebook", "Drone",
+            "Blender", "Guitar", "Tent", "Watch", "Speaker", "Puzzle", "Skillet", "Racket", "Monitor", "Planter"};
+
+    private static final int BATCH_SIZE = 5000;
+
+    private final DataSource dataSource;
+    private final long seed;
+
+    SyntheticDataGenerator(DataSource dataSource, long seed) {
+        this.dataSource = dataSource;
+        this.seed = seed;
+    }
+
+    record Range(long firstId, int count) {
+        long idAt(int index) {
+            return firstId + index;
+        }
+    }
+
+    Range seedProducts(int count) throws SQLException {
+        long firstId = reserveIds("products_seq", count);
+        Random random = new Random(seed);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        insert("insert into products (id, name, description, price, stock, category, active, created_at, updated_at) "
+                + "values (?, ?, ?, ?, ?, ?, true, ?, ?)", count, (statement, i) -> {
+            String adjective = pick(random, ADJECTIVES);
+            String material = pick(random, MATERIALS);
+            String noun = pick(random, NOUNS);
+            statement.setLong(1, firstId + i);
+            statement.setString(2, adjective + " " + material + " " + noun + " " + i);
+            statement.setString(3, "A " + adjective.toLowerCase() + " " + noun.toLowerCase() + " made of "
+                    + material.toLowerCase() + ", " + pick(random, ADJECTIVES).toLowerCase() + " and built to last");
+            statement.setDouble(4, random.nextInt(100_000) / 100.0);
+            statement.setInt(5, random.nextInt(500));
+            statement.setString(6, pick(random, CATEGORIES));
+            statement.setTimestamp(7, now);
+            statement.setTimestamp(8, now);
+        });
+        return new Range(firstId, count);
+    }
+
+    Range seedUsers(int count, String passwordHash) throws SQLException {
+        long firstId = reserveIds("users_seq", count);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        insert("insert into users (id, first_name, last_name, email, username, password, role, enabled, created_at, "
+                + "updated_at) values (?, ?, ?, ?, ?, ?, 'USER', true, ?, ?)", count, (statement, i) -> {
+            statement.setLong(1, firstId + i);
+            statement.setString(2, "Load");
+            statement.setString(3, "User " + i);
+            statement.setString(4, username(i) + "@loadtest.example");
+            statement.setString(5, username(i));
+            statement.setString(6, passwordHash);
+            statement.setTimestamp(7, now);
+            statement.setTimestamp(8, now);
+        });
+        return new Range(firstId, count);
+    }
+
+    // Without statistics H2 plans the keyset scans (search index build, scroll endpoints) on the nearly useless
+    // active-flag indexes and rescans the table for every page
+    void analyze() {
+        new JdbcTemplate(dataSource).execute("analyze");
+    }
+
+    static String username(int index) {
+        return "loaduser" + index;
+    }
+
+    // Hibernate's pooled optimizer hands out the 50 ids below each sequence value, so everything up to the next value
+    // is possibly in use and everything above it is free until the sequence passes it
+    private long reserveIds(String sequence, int count) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Long next = jdbcTemplate.queryForObject("select next value for " + sequence, Long.class);
+        long firstId = next + 1;
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (firstId + count + 50));
+        return firstId;
+    }
+
+    private void insert(String sql, int count, RowWriter rowWriter) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                rowWriter.write(statement, i);
+                statement.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == count - 1) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private interface RowWriter {
+        void write(PreparedStatement statement, int index) throws SQLException;
+    }
+}
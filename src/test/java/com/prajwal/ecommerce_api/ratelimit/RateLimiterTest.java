@@ -0,0 +1,57 @@
+package com.prajwal.ecommerce_api.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Time is passed in, so the buckets are exercised without sleeping.
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // Bursts of 3, then one request every half second
+    private final RateLimitPolicy policy = new RateLimitPolicy("test", 3, 2);
+    private final RateLimiter rateLimiter = new RateLimiter(1000, Duration.ofMinutes(1));
+
+    @Test
+    void admitsABurstUpToCapacityThenRejects() {
+        long now = 42 * SECOND;
+        assertEquals(2, rateLimiter.tryAcquire(policy, "ada", now).remaining());
+        assertEquals(1, rateLimiter.tryAcquire(policy, "ada", now).remaining());
+        assertEquals(0, rateLimiter.tryAcquire(policy, "ada", now).remaining());
+
+        RateLimiter.Decision rejected = rateLimiter.tryAcquire(policy, "ada", now);
+        assertFalse(rejected.allowed());
+        assertEquals(SECOND / 2, rejected.retryAfterNanos());
+        assertEquals(3 * SECOND / 2, rejected.resetNanos());
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        long now = 42 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(policy, "ada", now);
+        }
+        assertFalse(rateLimiter.tryAcquire(policy, "ada", now + SECOND / 4).allowed());
+        assertTrue(rateLimiter.tryAcquire(policy, "ada", now + SECOND / 2).allowed());
+        assertFalse(rateLimiter.tryAcquire(policy, "ada", now + SECOND / 2).allowed());
+        assertEquals(2, rateLimiter.tryAcquire(policy, "ada", now + 5 * SECOND).remaining());
+    }
+
+    @Test
+    void keepsClientsAndPoliciesApart() {
+        long now = 42 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(policy, "ada", now);
+        }
+        assertTrue(rateLimiter.tryAcquire(policy, "grace", now).allowed());
+        assertTrue(rateLimiter.tryAcquire(new RateLimitPolicy("other", 3, 2), "ada", now).allowed());
+    }
+}
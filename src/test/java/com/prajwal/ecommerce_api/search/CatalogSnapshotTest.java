@@ -0,0 +1,77 @@
+package com.prajwal.ecommerce_api.search;
+
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import com.prajwal.ecommerce_api.event.ProductChangedEvent;
+import com.prajwal.ecommerce_api.event.ProductsImportedEvent;
+import com.prajwal.ecommerce_api.mapper.ProductMapperImpl;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotTest {
+
+    private final List<Runnable> compactions = new ArrayList<>();
+    private ProductRepository productRepository;
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findBatchByActiveTrue(any(), any(), any()))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+        snapshot = new CatalogSnapshot(productRepository, new ProductMapperImpl(), 2, compactions::add);
+        snapshot.build();
+    }
+
+    private static ProductDTO product(long id, double price, String category) {
+        return new ProductDTO(id, "Product " + id, "d", price, 1, category, true, null);
+    }
+
+    private List<Long> ids(String category) {
+        return snapshot.findByPriceRange(0, 100, category, PageRequest.of(0, 50)).getContent().stream()
+                .map(ProductSummaryDTO::getId)
+                .toList();
+    }
+
+    @Test
+    void matchesCategoriesIgnoringCase() {
+        snapshot.onProductsImported(new ProductsImportedEvent(
+                List.of(product(1, 10, "Books"), product(2, 20, "books"), product(3, 30, "Games"))));
+        compactions.forEach(Runnable::run);
+        snapshot.onProductChanged(new ProductChangedEvent(4L, product(4, 40, "BOOKS")));
+
+        assertEquals(List.of(1L, 2L, 4L), ids("bOoKs"));
+    }
+
+    @Test
+    void compactsOffTheWritePathAndReplaysWritesMadeMeanwhile() {
+        snapshot.onProductsImported(new ProductsImportedEvent(
+                List.of(product(1, 10, "Books"), product(2, 20, "Books"), product(3, 30, "Books"))));
+        assertEquals(1, compactions.size());
+        assertEquals(List.of(1L, 2L, 3L), ids(null), "writes are visible before compaction runs");
+
+        // Committed while the compaction is in flight
+        snapshot.onProductChanged(new ProductChangedEvent(2L, null));
+        snapshot.onProductChanged(new ProductChangedEvent(1L, product(1, 50, "Books")));
+        snapshot.onProductChanged(new ProductChangedEvent(5L, product(5, 5, "Games")));
+        assertEquals(1, compactions.size(), "one compaction at a time");
+        assertEquals(List.of(5L, 3L, 1L), ids(null));
+
+        compactions.remove(0).run();
+        assertEquals(List.of(5L, 3L, 1L), ids(null));
+        assertEquals(List.of(3L, 1L), ids("books"));
+        assertEquals(3, snapshot.findByPriceRange(0, 100, null, PageRequest.of(0, 2)).getTotalElements());
+    }
+}
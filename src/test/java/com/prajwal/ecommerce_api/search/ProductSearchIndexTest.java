@@ -0,0 +1,89 @@
+package com.prajwal.ecommerce_api.search;
+
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.event.ProductChangedEvent;
+import com.prajwal.ecommerce_api.event.ProductsImportedEvent;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductSearchIndexTest {
+
+    private ProductRepository productRepository;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findBatchByActiveTrue(any(), any(), any()))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+        index = new ProductSearchIndex(productRepository);
+        index.build();
+    }
+
+    private static ProductDTO product(long id, String name, String description) {
+        return new ProductDTO(id, name, description, 10.0, 1, "Shoes", true, null);
+    }
+
+    @Test
+    void pagesThroughMatchesByRelevanceThenId() {
+        List<ProductDTO> products = new ArrayList<>();
+        // Ids 1-20 mention "boot" once in the description; 21 and 22 have it in the name as well
+        LongStream.rangeClosed(1, 20).forEach(id -> products.add(product(id, "Shoe " + id, "a boot")));
+        products.add(product(22, "Trail boot", "a boot"));
+        products.add(product(21, "Trail boot", "a boot"));
+        products.add(product(23, "Sandal", "open toe"));
+        index.onProductsImported(new ProductsImportedEvent(products));
+
+        Page<Long> first = index.search("boot", PageRequest.of(0, 4));
+        assertEquals(List.of(21L, 22L, 1L, 2L), first.getContent());
+        assertEquals(22, first.getTotalElements());
+
+        assertEquals(List.of(19L, 20L), index.search("boot", PageRequest.of(5, 4)).getContent());
+        assertEquals(List.of(), index.search("boot", PageRequest.of(6, 4)).getContent());
+    }
+
+    @Test
+    void dropsRemovedProducts() {
+        index.onProductsImported(new ProductsImportedEvent(
+                List.of(product(1, "Boot", "leather"), product(2, "Boot", "suede"))));
+        index.onProductChanged(new ProductChangedEvent(1L, null));
+
+        assertEquals(List.of(2L), index.search("boot", PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    void buildsBatchByBatchAndAppliesChangesMadeMeanwhile() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> first = List.of(new Product(1L, "Boot", "leather", 10.0, 1, "Shoes", true, now, now));
+        List<Product> second = List.of(new Product(2L, "Boot", "suede", 10.0, 1, "Shoes", true, now, now));
+        ProductSearchIndex building = new ProductSearchIndex(productRepository);
+        clearInvocations(productRepository);
+        when(productRepository.findBatchByActiveTrue(any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    // Product 1 is deleted after its batch was read
+                    building.onProductChanged(new ProductChangedEvent(1L, null));
+                    return Window.from(first, ScrollPosition::offset, true);
+                })
+                .thenReturn(Window.from(second, ScrollPosition::offset, false));
+
+        building.build();
+
+        assertEquals(List.of(2L), building.search("boot", PageRequest.of(0, 10)).getContent());
+        verify(productRepository, times(2)).findBatchByActiveTrue(any(), any(), any());
+    }
+}
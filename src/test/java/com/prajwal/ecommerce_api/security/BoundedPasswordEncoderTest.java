@@ -0,0 +1,61 @@
+package com.prajwal.ecommerce_api.security;
+
+import com.prajwal.ecommerce_api.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void hashesAndVerifiesOnThePool() {
+        encoder = new BoundedPasswordEncoder(4, 2, 4, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        String hash = encoder.encode("secret");
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+    }
+
+    @Test
+    void rehashesWhenTheCostDiffers() {
+        encoder = new BoundedPasswordEncoder(10, 1, 1, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(12).encode("secret")));
+        assertFalse(encoder.upgradeEncoding("$2a$10$" + "x".repeat(53)));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void rejectsWhenSaturated() {
+        // One slow worker and a one-slot queue: of a burst, at most two hashes are accepted
+        encoder = new BoundedPasswordEncoder(14, 1, 1, Duration.ofMillis(200), new SimpleMeterRegistry());
+        List<CompletableFuture<String>> burst = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            burst.add(CompletableFuture.supplyAsync(() -> encoder.encode("secret")));
+        }
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> {
+            for (CompletableFuture<String> call : burst) {
+                call.get();
+            }
+        });
+        assertInstanceOf(PasswordHashingBusyException.class, failure.getCause());
+    }
+}
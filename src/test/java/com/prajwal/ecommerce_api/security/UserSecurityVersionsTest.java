@@ -0,0 +1,79 @@
+package com.prajwal.ecommerce_api.security;
+
+import com.prajwal.ecommerce_api.event.UserSecurityChangedEvent;
+import com.prajwal.ecommerce_api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.prajwal.ecommerce_api.security.UserSecurityVersions.Status.CURRENT;
+import static com.prajwal.ecommerce_api.security.UserSecurityVersions.Status.REVOKED;
+import static com.prajwal.ecommerce_api.security.UserSecurityVersions.Status.UNKNOWN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserSecurityVersionsTest {
+
+    private UserRepository userRepository;
+    private UserSecurityVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        versions = new UserSecurityVersions(userRepository);
+    }
+
+    @Test
+    void acceptsOnlyTheCurrentVersionOfAnEnabledUser() {
+        versions.record(1, 3, true);
+        versions.record(2, 0, false);
+
+        assertEquals(CURRENT, versions.check(1, 3));
+        assertEquals(REVOKED, versions.check(1, 2));
+        assertEquals(REVOKED, versions.check(2, 0));
+        assertEquals(UNKNOWN, versions.check(3, 0));
+    }
+
+    @Test
+    void deletedUsersAreRevokedUntilTheNextReloadDropsThem() {
+        versions.record(1, 0, true);
+        versions.onUserSecurityChanged(new UserSecurityChangedEvent(1L, 1, false, true));
+        assertEquals(REVOKED, versions.check(1, 0));
+
+        when(userRepository.findAllSecurityStates()).thenReturn(List.of());
+        versions.reload();
+        assertEquals(UNKNOWN, versions.check(1, 0));
+    }
+
+    @Test
+    void reloadNeverMovesAVersionBack() {
+        // The reload read the row before the role change committed
+        when(userRepository.findAllSecurityStates()).thenReturn(List.of(new UserSecurityState(1L, 4, true)));
+        versions.onUserSecurityChanged(new UserSecurityChangedEvent(1L, 5, true, false));
+        versions.reload();
+
+        assertEquals(REVOKED, versions.check(1, 4));
+        assertEquals(CURRENT, versions.check(1, 5));
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        List<UserSecurityState> users = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            users.add(new UserSecurityState(id, (int) (id % 7), true));
+        }
+        when(userRepository.findAllSecurityStates()).thenReturn(users);
+        versions.reload();
+        for (long id = 5001; id <= 10_000; id++) {
+            versions.record(id, (int) (id % 7), true);
+        }
+
+        for (long id = 1; id <= 10_000; id++) {
+            assertEquals(CURRENT, versions.check(id, (int) (id % 7)));
+        }
+        assertEquals(UNKNOWN, versions.check(10_001, 0));
+    }
+}
@@ -0,0 +1,79 @@
+package com.prajwal.ecommerce_api.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    void servesClaimsUntilTheTokenExpires() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 300, new SimpleMeterRegistry());
+        // exp is held in whole seconds, so this expires 1 to 2 seconds from now
+        Claims claims = claims(System.currentTimeMillis() + 2000);
+
+        assertSame(claims, cache.get("token", verifier(claims)));
+        assertSame(claims, cache.get("token", verifier(claims)));
+        assertEquals(1, verifications.get());
+
+        Thread.sleep(2100);
+        cache.get("token", verifier(claims));
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void ttlBoundsALongLivedToken() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 1, new SimpleMeterRegistry());
+        Claims claims = claims(System.currentTimeMillis() + 3_600_000);
+
+        cache.get("token", verifier(claims));
+        cache.get("token", verifier(claims));
+        assertEquals(1, verifications.get());
+
+        Thread.sleep(1100);
+        cache.get("token", verifier(claims));
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void neverServesAnExpiredTokenFromTheCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 300, new SimpleMeterRegistry());
+        Claims expired = claims(System.currentTimeMillis() - 1000);
+
+        cache.get("token", verifier(expired));
+        cache.get("token", verifier(expired));
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void doesNotCacheTokensWithoutExpirationOrThatFailed() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 300, new SimpleMeterRegistry());
+
+        cache.get("token", verifier(Jwts.claims().setSubject("ada")));
+        cache.get("token", verifier(Jwts.claims().setSubject("ada")));
+        cache.get("bad", verifier(null));
+        cache.get("bad", verifier(null));
+        assertEquals(4, verifications.get());
+    }
+
+    private Function<String, Claims> verifier(Claims claims) {
+        return token -> {
+            verifications.incrementAndGet();
+            return claims;
+        };
+    }
+
+    private static Claims claims(long expiresAtMillis) {
+        return Jwts.claims().setSubject("ada").setExpiration(new Date(expiresAtMillis));
+    }
+}
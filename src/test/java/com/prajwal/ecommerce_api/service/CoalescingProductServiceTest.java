@@ -0,0 +1,120 @@
+package com.prajwal.ecommerce_api.service;
+
+import com.prajwal.ecommerce_api.dto.ProductSummaryDTO;
+import com.prajwal.ecommerce_api.exception.InvalidFilterException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CoalescingProductServiceTest {
+
+    private static final int CALLERS = 8;
+
+    private ProductServiceImpl delegate;
+    private SimpleMeterRegistry meterRegistry;
+    private CoalescingProductService service;
+    private ExecutorService executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ProductServiceImpl.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CoalescingProductService(delegate, meterRegistry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentEqualQueriesShareOneExecution() throws Exception {
+        Page<ProductSummaryDTO> page = new PageImpl<>(List.of(new ProductSummaryDTO(1L, "Lamp", 10.0, 5, "Home")));
+        when(delegate.filterByPriceRange(any(), any(), any())).thenAnswer(invocation -> {
+            release.await();
+            return page;
+        });
+
+        List<Future<Page<ProductSummaryDTO>>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            // Equal but distinct Pageable instances, as separate requests would build them
+            results.add(executor.submit(() -> service.filterByPriceRange(PageRequest.of(0, 10), 5.0, 20.0)));
+        }
+        awaitCoalesced("products.by-price", CALLERS - 1);
+        release.countDown();
+
+        for (Future<Page<ProductSummaryDTO>> result : results) {
+            assertSame(page, result.get(5, TimeUnit.SECONDS));
+        }
+        verify(delegate, times(1)).filterByPriceRange(any(), any(), any());
+    }
+
+    @Test
+    void everyJoinedCallerGetsTheLeadersException() throws Exception {
+        InvalidFilterException failure = new InvalidFilterException("Category cannot be blank");
+        when(delegate.filterByCategory("Home")).thenAnswer(invocation -> {
+            release.await();
+            throw failure;
+        });
+
+        List<Future<List<ProductSummaryDTO>>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> service.filterByCategory("Home")));
+        }
+        awaitCoalesced("products.by-category", CALLERS - 1);
+        release.countDown();
+
+        for (Future<List<ProductSummaryDTO>> result : results) {
+            Exception thrown = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, thrown.getCause());
+        }
+        verify(delegate, times(1)).filterByCategory("Home");
+
+        // Nothing is kept after the failure: the next call runs again
+        reset(delegate);
+        when(delegate.filterByCategory("Home")).thenReturn(List.of());
+        assertEquals(List.of(), service.filterByCategory("Home"));
+    }
+
+    @Test
+    void differentQueriesAreNotCoalesced() {
+        when(delegate.filterByPriceRange(any(), any(), any())).thenReturn(Page.empty());
+
+        service.filterByPriceRange(PageRequest.of(0, 10), 5.0, 20.0);
+        service.filterByPriceRange(PageRequest.of(1, 10), 5.0, 20.0);
+        service.filterByPriceRange(PageRequest.of(0, 10), 5.0, 21.0);
+
+        verify(delegate, times(3)).filterByPriceRange(any(), any(), any());
+        assertEquals(0, coalesced("products.by-price"));
+    }
+
+    private void awaitCoalesced(String name, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced(name) < expected) {
+            assertTrue(System.nanoTime() < deadline, "callers never joined the in-flight query");
+            Thread.sleep(5);
+        }
+    }
+
+    private double coalesced(String name) {
+        return meterRegistry.get("singleflight.calls").tag("name", name).tag("result", "coalesced").counter().count();
+    }
+}
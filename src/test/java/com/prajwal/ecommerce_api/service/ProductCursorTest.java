@@ -0,0 +1,76 @@
+package com.prajwal.ecommerce_api.service;
+
+import com.prajwal.ecommerce_api.exception.InvalidFilterException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCursorTest {
+
+    @Test
+    void decodesWhatItEncodedForEverySortProperty() {
+        assertRoundTrip(ProductCursor.sortedBy(null, "id"), Map.of("id", 42L));
+        assertRoundTrip(ProductCursor.sortedBy("price,desc", "id"), keys("price", 19.99, 42L));
+        // The value is the last field, so separators and non-ASCII in a name survive
+        assertRoundTrip(ProductCursor.sortedBy("name", "id"), keys("name", "Lamp | Desk, grün", 42L));
+    }
+
+    @Test
+    void sortsByTheRequestedPropertyThenId() {
+        assertEquals(Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id")),
+                ProductCursor.sortedBy("price,desc", "id").sort());
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), ProductCursor.sortedBy(" ", "id").sort());
+    }
+
+    @Test
+    void aBlankCursorStartsAtTheBeginning() {
+        ScrollPosition position = ProductCursor.sortedBy("price", "id").decode(null);
+        assertTrue(position.isInitial());
+    }
+
+    @Test
+    void rejectsACursorFromAnotherSortOrder() {
+        String cursor = ProductCursor.sortedBy("price,asc", "id")
+                .encode(ScrollPosition.forward(keys("price", 5.0, 1L)));
+
+        assertThrows(InvalidFilterException.class, () -> ProductCursor.sortedBy("price,desc", "id").decode(cursor));
+        assertThrows(InvalidFilterException.class, () -> ProductCursor.sortedBy("name", "id").decode(cursor));
+    }
+
+    @Test
+    void rejectsMalformedCursorsAndSorts() {
+        ProductCursor byPrice = ProductCursor.sortedBy("price", "id");
+        String notBase64 = "***";
+        String notANumber = Base64.getUrlEncoder().encodeToString("price|ASC|x|5.0".getBytes(StandardCharsets.UTF_8));
+        String tooShort = Base64.getUrlEncoder().encodeToString("price|ASC".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidFilterException.class, () -> byPrice.decode(notBase64));
+        assertThrows(InvalidFilterException.class, () -> byPrice.decode(notANumber));
+        assertThrows(InvalidFilterException.class, () -> byPrice.decode(tooShort));
+        assertThrows(InvalidFilterException.class, () -> ProductCursor.sortedBy("stock", "id"));
+        assertThrows(InvalidFilterException.class, () -> ProductCursor.sortedBy("price,sideways", "id"));
+    }
+
+    private static void assertRoundTrip(ProductCursor cursor, Map<String, Object> keys) {
+        String token = cursor.encode(ScrollPosition.forward(keys));
+        KeysetScrollPosition decoded = (KeysetScrollPosition) cursor.decode(token);
+        assertEquals(keys, decoded.getKeys());
+        assertEquals(ScrollPosition.Direction.FORWARD, decoded.getDirection());
+        assertFalse(token.contains("=") || token.contains("+") || token.contains("/"), "not URL-safe: " + token);
+    }
+
+    private static Map<String, Object> keys(String property, Object value, long id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(property, value);
+        keys.put("id", id);
+        return keys;
+    }
+}
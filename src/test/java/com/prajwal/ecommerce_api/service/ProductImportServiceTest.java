@@ -0,0 +1,90 @@
+package com.prajwal.ecommerce_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prajwal.ecommerce_api.dto.ImportErrorDTO;
+import com.prajwal.ecommerce_api.dto.ImportReportDTO;
+import com.prajwal.ecommerce_api.mapper.ProductMapperImpl;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductImportServiceTest {
+
+    private ProductRepository productRepository;
+    private ProductImportService service;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<List<Product>>getArgument(0)));
+        service = new ProductImportService(productRepository, new ProductMapperImpl(),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), mock(EntityManager.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(ApplicationEventPublisher.class), 3);
+    }
+
+    private ImportReportDTO importJson(String json) throws IOException {
+        return service.importJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String product(String name) {
+        return "{\"name\":\"" + name + "\",\"description\":\"d\",\"price\":1.5,\"stock\":3,\"category\":\"c\"}";
+    }
+
+    @Test
+    void reportsUnreadableRowsAndKeepsGoing() throws IOException {
+        ImportReportDTO report = importJson("[" + product("a") + ","
+                + "{\"name\":\"b\",\"description\":\"d\",\"price\":\"abc\",\"stock\":3,\"category\":\"c\"},"
+                + "42," + product("c") + "]");
+
+        assertEquals(4, report.getTotalRows());
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(2L, 3L), report.getErrors().stream().map(ImportErrorDTO::getRow).toList());
+    }
+
+    @Test
+    void stopsAtBrokenSyntax() throws IOException {
+        ImportReportDTO report = importJson("[" + product("a") + ", {\"name\": ]");
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void retriesAFailedChunkRowByRow() throws IOException {
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.stream().anyMatch(product -> product.getName().equals("duplicate"))) {
+                throw new DataIntegrityViolationException("duplicate name");
+            }
+            return new ArrayList<>(products);
+        });
+
+        ImportReportDTO report = importJson("[" + product("a") + "," + product("duplicate") + "," + product("c") + ","
+                + product("d") + "]");
+
+        assertEquals(3, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2L, report.getErrors().get(0).getRow());
+    }
+}
@@ -0,0 +1,118 @@
+package com.prajwal.ecommerce_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prajwal.ecommerce_api.cache.ProductCache;
+import com.prajwal.ecommerce_api.dto.CursorPageDTO;
+import com.prajwal.ecommerce_api.dto.ProductBatchDTO;
+import com.prajwal.ecommerce_api.dto.ProductDTO;
+import com.prajwal.ecommerce_api.exception.InvalidFilterException;
+import com.prajwal.ecommerce_api.mapper.ProductMapperImpl;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import com.prajwal.ecommerce_api.search.ProductSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductServiceImplTest {
+
+    private ProductRepository productRepository;
+    private PlatformTransactionManager transactionManager;
+    private ProductServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        service = new ProductServiceImpl(new ProductMapperImpl(), productRepository,
+                new ProductCache(100, 300, new SimpleMeterRegistry()), mock(ProductSearchIndex.class),
+                mock(ObjectProvider.class), mock(StockReservationService.class), mock(ApplicationEventPublisher.class),
+                mock(EntityManager.class), new ObjectMapper(), transactionManager);
+    }
+
+    static Product product(long id, boolean active) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Product(id, "Product " + id, "d", 10.0, 5, "Books", active, now, now);
+    }
+
+    @Test
+    void aCacheHitOpensNoTransaction() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1, true)));
+
+        ProductDTO loaded = service.getProductById(1L);
+        verify(transactionManager).getTransaction(any());
+
+        assertEquals(loaded, service.getProductById(1L));
+        verify(transactionManager).getTransaction(any());
+        verify(productRepository).findById(1L);
+    }
+
+    @Test
+    void theNextCursorResumesAfterTheLastRowOfThePage() {
+        List<Product> firstPage = List.of(product(7, true), product(3, true));
+        firstPage.get(1).setPrice(12.5);
+        when(productRepository.findByPriceBetweenAndActiveTrue(any(), any(), any(), any(), any()))
+                .thenReturn(Window.from(firstPage, i -> ScrollPosition.forward(
+                        Map.of("price", firstPage.get(i).getPrice(), "id", firstPage.get(i).getId())), true))
+                .thenReturn(Window.from(List.of(), i -> null, false));
+
+        CursorPageDTO<ProductDTO> page = service.scrollByPriceRange(null, 2, 0.0, 100.0, "price");
+        assertTrue(page.isHasNext());
+        CursorPageDTO<ProductDTO> last = service.scrollByPriceRange(page.getNextCursor(), 2, 0.0, 100.0, "price");
+        assertFalse(last.isHasNext());
+        assertNull(last.getNextCursor());
+
+        ArgumentCaptor<ScrollPosition> positions = ArgumentCaptor.forClass(ScrollPosition.class);
+        verify(productRepository, times(2)).findByPriceBetweenAndActiveTrue(
+                eq(0.0), eq(100.0), positions.capture(), eq(Sort.by("price").and(Sort.by("id"))), eq(Limit.of(2)));
+        assertTrue(positions.getAllValues().get(0).isInitial());
+        assertEquals(ScrollPosition.forward(Map.of("price", 12.5, "id", 3L)), positions.getAllValues().get(1));
+    }
+
+    @Test
+    void aBatchKeepsTheRequestedOrderAndReportsMissingIds() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1, true)));
+        service.getProductById(1L);
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(3, true), product(2, false)));
+
+        ProductBatchDTO batch = service.getProductsByIds(List.of(3L, 1L, 99L, 3L, 2L));
+
+        assertEquals(List.of(3L, 1L), batch.getProducts().stream().map(ProductDTO::getId).toList());
+        assertEquals(List.of(99L, 2L), batch.getMissingIds());
+        // One query for everything the cache didn't already hold
+        ArgumentCaptor<Collection<Long>> loaded = ArgumentCaptor.captor();
+        verify(productRepository).findAllById(loaded.capture());
+        assertEquals(Set.of(3L, 99L, 2L), Set.copyOf(loaded.getValue()));
+    }
+
+    @Test
+    void aBatchNeedsBetweenOneAndAHundredIds() {
+        List<Long> tooMany = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        assertThrows(InvalidFilterException.class, () -> service.getProductsByIds(List.of()));
+        assertThrows(InvalidFilterException.class, () -> service.getProductsByIds(tooMany));
+        verifyNoInteractions(productRepository);
+    }
+}
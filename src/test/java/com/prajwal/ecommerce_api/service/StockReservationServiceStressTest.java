@@ -0,0 +1,253 @@
+package com.prajwal.ecommerce_api.service;
+
+import com.prajwal.ecommerce_api.dto.StockReservationDTO;
+import com.prajwal.ecommerce_api.exception.InsufficientStockException;
+import com.prajwal.ecommerce_api.exception.ReservationNotFoundException;
+import com.prajwal.ecommerce_api.mapper.ProductMapperImpl;
+import com.prajwal.ecommerce_api.model.Product;
+import com.prajwal.ecommerce_api.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StockReservationServiceStressTest {
+
+    private static final long PRODUCT_ID = 1L;
+    private static final int STOCK = 1_000_000;
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS_PER_THREAD = 5_000;
+
+    private ProductRepository productRepository;
+    private Product product;
+    private StockReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        LocalDateTime now = LocalDateTime.now();
+        product = new Product(PRODUCT_ID, "Limited Sneaker", "Flash sale item", 199.0, STOCK, "Shoes", true, now, now);
+        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+        when(productRepository.findByIdForUpdate(PRODUCT_ID)).thenReturn(Optional.of(product));
+        when(productRepository.saveAndFlush(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        service = new StockReservationService(productRepository, new ProductMapperImpl(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(ApplicationEventPublisher.class), 900);
+    }
+
+    @Test
+    void neverOversellsOneSkuUnderContention() throws Exception {
+        AtomicLong reserved = new AtomicLong();
+        AtomicLong committed = new AtomicLong();
+        AtomicLong released = new AtomicLong();
+        List<String> held = new CopyOnWriteArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    int quantity = 1 + (i + thread) % 3;
+                    StockReservationDTO reservation;
+                    try {
+                        reservation = service.reserve(PRODUCT_ID, quantity, "user" + thread);
+                    } catch (InsufficientStockException ex) {
+                        continue;
+                    }
+                    reserved.addAndGet(quantity);
+                    // Mix of outcomes: most sell, some are abandoned, some stay held
+                    switch (i % 4) {
+                        case 0, 1 -> {
+                            service.commit(reservation.getReservationId(), "user" + thread);
+                            committed.addAndGet(quantity);
+                        }
+                        case 2 -> {
+                            service.release(reservation.getReservationId(), "user" + thread);
+                            released.addAndGet(quantity);
+                        }
+                        default -> held.add(reservation.getReservationId());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        long stillReserved = reserved.get() - committed.get() - released.get();
+        long available = service.getAvailableStock(PRODUCT_ID);
+        assertEquals(STOCK, available + stillReserved + committed.get(), "units were lost or oversold");
+        assertEquals(committed.get(), service.getPendingSales(PRODUCT_ID));
+
+        service.flushPendingSales();
+        verify(productRepository).saveAndFlush(product);
+        assertEquals(STOCK - committed.get(), (long) product.getStock());
+        assertEquals(0, service.getPendingSales(PRODUCT_ID));
+    }
+
+    @Test
+    void sellsOutExactlyWhenDemandExceedsStock() throws Exception {
+        int stock = 1_000;
+        LocalDateTime now = LocalDateTime.now();
+        when(productRepository.findById(2L)).thenReturn(Optional.of(
+                new Product(2L, "Console", "Restock drop", 499.0, stock, "Electronics", true, now, now)));
+
+        AtomicLong sold = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 100; i++) {
+                    try {
+                        StockReservationDTO reservation = service.reserve(2L, 1, "buyer");
+                        service.commit(reservation.getReservationId(), "buyer");
+                        sold.incrementAndGet();
+                    } catch (InsufficientStockException ignored) {
+                        // sold out
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(stock, sold.get());
+        assertEquals(0, service.getAvailableStock(2L));
+    }
+
+    @Test
+    void stockOverwriteIsAppliedAsDelta() {
+        StockReservationDTO reservation = service.reserve(PRODUCT_ID, 10, "user");
+        service.onStockOverwritten(PRODUCT_ID, STOCK, 25);
+        assertEquals(15, service.getAvailableStock(PRODUCT_ID));
+
+        service.release(reservation.getReservationId(), "user");
+        assertEquals(25, service.getAvailableStock(PRODUCT_ID));
+    }
+
+    @Test
+    void rejectsAnOverwriteBelowTheReservedAndUnsoldUnits() {
+        StockReservationDTO sold = service.reserve(PRODUCT_ID, 4, "user");
+        service.commit(sold.getReservationId(), "user");
+        service.reserve(PRODUCT_ID, 6, "user");
+
+        assertThrows(InsufficientStockException.class, () -> overwriteCommitted(PRODUCT_ID, STOCK, 9));
+        assertEquals(STOCK - 10, service.getAvailableStock(PRODUCT_ID));
+
+        overwriteCommitted(PRODUCT_ID, STOCK, 10);
+        assertEquals(0, service.getAvailableStock(PRODUCT_ID));
+        product.setStock(10);
+        service.flushPendingSales();
+        assertEquals(6, product.getStock());
+    }
+
+    @Test
+    void aRolledBackReductionHandsItsUnitsBack() {
+        service.reserve(PRODUCT_ID, 1, "user");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.onStockOverwritten(PRODUCT_ID, STOCK, 100);
+            assertEquals(99, service.getAvailableStock(PRODUCT_ID));
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(STOCK - 1, service.getAvailableStock(PRODUCT_ID));
+    }
+
+    @Test
+    void doesNotSeedFromAReadThatAnOverwriteRaced() {
+        LocalDateTime now = LocalDateTime.now();
+        Product beforeOverwrite = new Product(3L, "Lamp", "Desk lamp", 30.0, 100, "Home", true, now, now);
+        Product afterOverwrite = new Product(3L, "Lamp", "Desk lamp", 30.0, 10, "Home", true, now, now);
+        // The admin update commits while the SKU is being seeded from the row as it was before
+        when(productRepository.findById(3L)).thenAnswer(invocation -> {
+            overwriteCommitted(3L, 100, 10);
+            return Optional.of(beforeOverwrite);
+        }).thenReturn(Optional.of(afterOverwrite));
+
+        assertEquals(10, service.getAvailableStock(3L));
+    }
+
+    private void overwriteCommitted(Long productId, int previousStock, int newStock) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.onStockOverwritten(productId, previousStock, newStock);
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void expiredReservationsAreReleasedExactlyOnceAndCannotBeCommitted() throws Exception {
+        StockReservationService expiring = new StockReservationService(productRepository, new ProductMapperImpl(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(ApplicationEventPublisher.class), 0);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(expiring.reserve(PRODUCT_ID, 1, "user").getReservationId());
+        }
+
+        // Commits racing the sweep: every one is rejected, and every unit comes back once
+        Future<?> sweep = CompletableFuture.runAsync(expiring::releaseExpiredReservations);
+        for (String id : ids) {
+            assertThrows(ReservationNotFoundException.class, () -> expiring.commit(id, "user"));
+        }
+        sweep.get(1, TimeUnit.MINUTES);
+
+        assertEquals(STOCK, expiring.getAvailableStock(PRODUCT_ID));
+        assertEquals(0, expiring.getPendingSales(PRODUCT_ID));
+    }
+
+    @Test
+    void evictsIdleSkusOnlyOnceTheirSalesAreWrittenBack() {
+        StockReservationDTO sold = service.reserve(PRODUCT_ID, 2, "user");
+        StockReservationDTO held = service.reserve(PRODUCT_ID, 3, "user");
+        service.commit(sold.getReservationId(), "user");
+
+        service.evictIdleSkus();
+        service.evictIdleSkus();
+        assertEquals(1, service.getSkuCount(), "pinned by a reservation");
+
+        service.release(held.getReservationId(), "user");
+        service.evictIdleSkus();
+        assertEquals(1, service.getSkuCount(), "sales still pending");
+
+        service.flushPendingSales();
+        service.evictIdleSkus();
+        assertEquals(0, service.getSkuCount());
+    }
+
+    private static void completeTransaction(int status) {
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                status);
+    }
+}